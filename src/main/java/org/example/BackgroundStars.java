@@ -11,6 +11,7 @@ public class BackgroundStars {
     private static final int STAR_COUNT = 250; // Number of stars
     private static final float MIN_SPEED = 0.01f; // Minimum fall speed
     private static final float MAX_SPEED = 0.05f; // Maximum fall speed
+    private static final float STAR_RADIUS = 0.08f; // Radius when drawn as circles
 
     private final Star[] stars;
     private final Random random;
@@ -43,16 +44,23 @@ public class BackgroundStars {
      * @param maxY Top bound of the screen in world coordinates
      */
     public BackgroundStars(float minX, float maxX, float minY, float maxY) {
+        this(minX, maxX, minY, maxY, STAR_COUNT);
+    }
+
+    /**
+     * Constructor with an explicit star count (see {@link RenderQuality#getStarCount()})
+     */
+    public BackgroundStars(float minX, float maxX, float minY, float maxY, int starCount) {
         this.minX = minX;
         this.maxX = maxX;
         this.minY = minY;
         this.maxY = maxY;
 
         this.random = new Random();
-        this.stars = new Star[STAR_COUNT];
+        this.stars = new Star[starCount];
 
         // Initialize stars with random positions and speeds
-        for (int i = 0; i < STAR_COUNT; i++) {
+        for (int i = 0; i < starCount; i++) {
             float x = randomX();
             float y = randomY();
             float speed = MIN_SPEED + random.nextFloat() * (MAX_SPEED - MIN_SPEED);
@@ -105,10 +113,11 @@ public class BackgroundStars {
      * Alternative rendering method using small circles instead of points
      * for better visual appearance (optional, use if points are too small)
      */
-    public void drawAsCircles(GL2 gl) {
+    public void drawAsCircles(GL2 gl, LevelOfDetail lod) {
+        int segments = lod.circleSegments(STAR_RADIUS);
         for (Star star : stars) {
             gl.glColor3f(star.brightness, star.brightness, star.brightness);
-            drawTinyCircle(gl, star.x, star.y, 0.08f, 6); // Very small circles
+            drawTinyCircle(gl, star.x, star.y, STAR_RADIUS, segments); // Very small circles
         }
     }
 
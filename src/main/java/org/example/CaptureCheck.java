@@ -0,0 +1,175 @@
+package org.example;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Checks {@link FrameCapture} without a GPU. A stand-in for {@link CaptureGl}
+ * answers read-backs with a pattern naming the frame, row and column: red is
+ * the frame number, green the row counted from the bottom, blue the column.
+ *
+ * Each format is recorded once through pixel buffer objects and once
+ * synchronously, and the window changes size halfway through. Every file
+ * written must hold its own frame's pattern the right way up, written plus
+ * dropped frames must add up to every frame, and capturing after close must
+ * be ignored.
+ *
+ * Run with {@code --capture-check [frames]} (default 240).
+ */
+public class CaptureCheck {
+    private static final int WIDTH = 64;
+    private static final int HEIGHT = 32;
+    private static final int WORKERS = 2;
+    private static final long FRAME_MILLIS = 2; // Slower than the encoders, so few frames drop
+
+    public static boolean run(int frames) throws IOException, InterruptedException {
+        boolean passed = true;
+        for (FrameCapture.Format format : FrameCapture.Format.values()) {
+            for (boolean pbos : new boolean[]{true, false}) {
+                passed &= runOne(format, pbos, frames);
+            }
+        }
+        return passed;
+    }
+
+    private static boolean runOne(FrameCapture.Format format, boolean pbos, int frames)
+            throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("capture-check");
+        FakeGl gl = new FakeGl(pbos);
+        FrameCapture capture = new FrameCapture(directory, format, WORKERS);
+        for (int frame = 0; frame < frames; frame++) {
+            gl.frame = frame;
+            boolean grown = frame >= frames / 2;
+            capture.capture(gl, grown ? WIDTH * 2 : WIDTH, grown ? HEIGHT * 2 : HEIGHT);
+            Thread.sleep(FRAME_MILLIS);
+        }
+        capture.close(gl);
+        String summary = capture.summary();
+        capture.capture(gl, WIDTH, HEIGHT);
+        boolean ignoredAfterClose = summary.equals(capture.summary());
+
+        int files = 0;
+        int wrong = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                files++;
+                if (!holdsPattern(file, format)) wrong++;
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+
+        long accounted = capture.getWritten() + capture.getDropped() + capture.getFailed();
+        boolean passed = wrong == 0 && files == capture.getWritten() && accounted == frames
+                && capture.getFailed() == 0 && ignoredAfterClose;
+        System.out.printf("%-4s %-13s %d frames: %d written, %d dropped, %d failed, %d files with the wrong pixels: %s%n",
+                format, pbos ? "pixel buffers" : "synchronous", frames, capture.getWritten(), capture.getDropped(),
+                capture.getFailed(), wrong, passed ? "ok" : "FAILED");
+        return passed;
+    }
+
+    /**
+     * Checks the first pixel of the image's top row and the last pixel of its bottom row.
+     */
+    private static boolean holdsPattern(Path file, FrameCapture.Format format) throws IOException {
+        String name = file.getFileName().toString();
+        int frame = Integer.parseInt(name.substring("frame_".length(), "frame_".length() + 6));
+        if (format == FrameCapture.Format.PNG) {
+            BufferedImage image = ImageIO.read(file.toFile());
+            int width = image.getWidth(), height = image.getHeight();
+            return image.getRGB(0, 0) == rgb(frame, height - 1, 0)
+                    && image.getRGB(width - 1, height - 1) == rgb(frame, 0, width - 1);
+        }
+        // Raw files keep OpenGL's order: bottom row first, size in the name
+        String[] size = name.substring(name.lastIndexOf('_') + 1, name.indexOf('.')).split("x");
+        int width = Integer.parseInt(size[0]), height = Integer.parseInt(size[1]);
+        ByteBuffer pixels = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (pixels.capacity() != width * height * 4) return false;
+        int topLeft = (height - 1) * width * 4;
+        int bottomRight = (width - 1) * 4;
+        return pixels.getInt(topLeft) == rgba(frame, height - 1, 0)
+                && pixels.getInt(bottomRight) == rgba(frame, 0, width - 1);
+    }
+
+    private static int rgb(int frame, int row, int column) {
+        return 0xFF000000 | (frame & 0xFF) << 16 | (row & 0xFF) << 8 | (column & 0xFF);
+    }
+
+    private static int rgba(int frame, int row, int column) {
+        return (frame & 0xFF) << 24 | (row & 0xFF) << 16 | (column & 0xFF) << 8 | 0xFF;
+    }
+
+    /**
+     * Buffer objects backed by direct buffers, and read-backs that write the pattern.
+     */
+    private static final class FakeGl implements CaptureGl {
+        final boolean pbos;
+        final Map<Integer, ByteBuffer> buffers = new HashMap<>();
+        int nextBuffer = 1;
+        int bound;
+        int frame;
+
+        FakeGl(boolean pbos) {
+            this.pbos = pbos;
+        }
+
+        @Override
+        public boolean hasPixelBuffers() {
+            return pbos;
+        }
+
+        @Override
+        public void genBuffers(int[] ids) {
+            for (int i = 0; i < ids.length; i++) ids[i] = nextBuffer++;
+        }
+
+        @Override
+        public void deleteBuffers(int[] ids) {
+            for (int id : ids) buffers.remove(id);
+        }
+
+        @Override
+        public void bindPackBuffer(int id) {
+            bound = id;
+        }
+
+        @Override
+        public void allocatePackBuffer(int bytes) {
+            buffers.put(bound, ByteBuffer.allocateDirect(bytes));
+        }
+
+        @Override
+        public void readPixelsToPackBuffer(int width, int height) {
+            fill(buffers.get(bound), width, height);
+        }
+
+        @Override
+        public void readPixels(int width, int height, ByteBuffer target) {
+            fill(target, width, height);
+        }
+
+        @Override
+        public ByteBuffer mapPackBuffer() {
+            return buffers.get(bound).duplicate().clear();
+        }
+
+        @Override
+        public void unmapPackBuffer() {
+        }
+
+        private void fill(ByteBuffer target, int width, int height) {
+            for (int row = 0; row < height; row++) {
+                for (int column = 0; column < width; column++) {
+                    target.putInt((row * width + column) * 4, rgba(frame, row, column));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The OpenGL calls {@link FrameCapture} makes, so it can be checked without a
+ * GPU (see {@link CaptureCheck}). Read-backs are always tightly packed RGBA
+ * bytes, bottom row first. {@link JoglCaptureGl} is the real one.
+ */
+interface CaptureGl {
+    /** Whether pixel pack buffers can be created and mapped. */
+    boolean hasPixelBuffers();
+
+    void genBuffers(int[] ids);
+
+    void deleteBuffers(int[] ids);
+
+    /** Binds a buffer as the pixel pack target; 0 unbinds. */
+    void bindPackBuffer(int id);
+
+    /** Allocates storage for the bound pack buffer. */
+    void allocatePackBuffer(int bytes);
+
+    /** Reads the framebuffer into the bound pack buffer, without waiting for it. */
+    void readPixelsToPackBuffer(int width, int height);
+
+    /** Reads the framebuffer into client memory, waiting for the GPU. */
+    void readPixels(int width, int height, ByteBuffer target);
+
+    /** Maps the bound pack buffer for reading, or null if that failed. */
+    ByteBuffer mapPackBuffer();
+
+    void unmapPackBuffer();
+}
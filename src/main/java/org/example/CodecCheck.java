@@ -0,0 +1,106 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Round-trip check for {@link StateCodec}.
+ *
+ * Plays seeded worlds (with catalog obstacles, restarting after every game
+ * over) the way the server's bot does, and streams every changed snapshot
+ * through an encoder and decoder, skipping a random {@link #SKIP_PERCENT}% of
+ * them as the server does for a slow client. Every decoded field must equal
+ * the snapshot sent and each message must be consumed exactly. Each message
+ * is also first offered cut short, which must decode to nothing without
+ * moving the buffer, and encoding into a buffer too small must be refused
+ * without touching it.
+ *
+ * Run with {@code --codec-check [worlds]} (default 20).
+ */
+public class CodecCheck {
+    private static final int TICKS = 20_000;
+    private static final int SKIP_PERCENT = 10;
+
+    public static boolean run(int worlds) {
+        long messages = 0;
+        long keyframes = 0;
+        long skipped = 0;
+        long bytes = 0;
+        int failures = 0;
+        for (int w = 0; w < worlds; w++) {
+            long seed = 0xC0DECL * 31 + w;
+            GameWorld world = new GameWorld(seed);
+            Random random = new Random(~seed);
+            StateCodec.Encoder encoder = new StateCodec.Encoder();
+            StateCodec.Decoder decoder = new StateCodec.Decoder();
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            int[] snapshot = new int[StateCodec.HEADER_SIZE];
+
+            for (int tick = 0; tick < TICKS; tick++) {
+                PlayerBall ball = world.getPlayerBall();
+                if (world.isGameOver()) {
+                    world.reset();
+                } else if (ball.getVelocityY() <= 0 && ball.getY() < -2) {
+                    world.jump();
+                }
+                world.update(1f);
+                snapshot = StateCodec.capture(world, snapshot);
+                if (encoder.isUnchanged(snapshot)) continue;
+                if (random.nextInt(100) < SKIP_PERCENT) {
+                    skipped++;
+                    continue;
+                }
+
+                buffer.clear();
+                if (!encoder.encode(snapshot, buffer)) {
+                    failures++;
+                    System.out.printf("seed %d tick %d: a %d-field snapshot didn't fit in %d bytes%n",
+                            seed, tick, StateCodec.length(snapshot), buffer.capacity());
+                    break;
+                }
+                buffer.flip();
+                int length = buffer.remaining();
+                bytes += length;
+                messages++;
+
+                buffer.limit(random.nextInt(length));
+                boolean partialIgnored = decoder.decode(buffer) == null && buffer.position() == 0;
+                buffer.limit(length);
+                int[] decoded = decoder.decode(buffer);
+                if (decoder.lastWasKeyframe()) keyframes++;
+                String problem = !partialIgnored ? "decoded a message cut short"
+                        : decoded == null ? "no message decoded"
+                        : buffer.hasRemaining() ? buffer.remaining() + " bytes left over"
+                        : mismatch(snapshot, decoded);
+                if (problem != null) {
+                    failures++;
+                    System.out.printf("seed %d tick %d: %s%n", seed, tick, problem);
+                    break;
+                }
+            }
+
+            ByteBuffer tiny = ByteBuffer.allocate(5);
+            if (encoder.encode(snapshot, tiny) || tiny.position() != 0) {
+                failures++;
+                System.out.printf("seed %d: encoding into %d bytes wasn't refused cleanly%n", seed, tiny.capacity());
+            }
+        }
+        System.out.printf("Codec check: %d worlds, %d messages (%d keyframes), %d snapshots skipped, %.1f bytes/message:"
+                        + " %d failures%n",
+                worlds, messages, keyframes, skipped, messages == 0 ? 0 : (double) bytes / messages, failures);
+        return failures == 0 && messages > 0;
+    }
+
+    /**
+     * Describes the first field that differs, or null if all match.
+     */
+    private static String mismatch(int[] sent, int[] decoded) {
+        int length = StateCodec.length(sent);
+        for (int i = 0; i < length; i++) {
+            if (decoded[i] != sent[i]) {
+                return String.format("field %d of %d decoded as %d, sent %d", i, length, decoded[i], sent[i]);
+            }
+        }
+        return null;
+    }
+}
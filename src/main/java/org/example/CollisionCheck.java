@@ -0,0 +1,273 @@
+package org.example;
+
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Randomized equivalence check for swept collision.
+ *
+ * Plays the same seeded worlds with the same jumps twice: once with discrete
+ * collision at a high tick rate (the reference) and once with swept collision
+ * at a low tick rate. A {@link Bot} times jumps through the rings in the
+ * reference run and the swept runs replay its jumps. Both see each ring at its
+ * angle for the same instant as the ball. Every run must end with the same
+ * score and the game must end within the same low-rate tick.
+ *
+ * The only allowed differences are analytic, and each is counted separately.
+ * The reference samples the path every {@link #REFERENCE_DT} frames, so it can
+ * step over a contact shorter than that, which the swept test must still catch.
+ * A run where the swept game ends earlier is accepted only if the wrong-color
+ * contact that ended it lasted less than one reference step (see
+ * {@link SweptCollision#getHitDuration()}), and a run scoring one ring more
+ * only if the ball touched that ring's band on its own color for less than a
+ * reference step before the contact that ended the game. A contact the
+ * reference saw and the swept test missed always fails.
+ *
+ * The reference's position also drifts from the exact path by float round-off
+ * over its many small steps (a few thousandths of a unit after thousands of
+ * steps). So a game that ends with the ball within {@link #FALL_DRIFT} of the
+ * fall line in either run, or that the swept test ends with a graze reaching
+ * less than that into a band (at the top of a hop, say), may legitimately end
+ * in only one of them.
+ *
+ * The reference runs must pass at least {@link #MIN_RINGS_PER_RUN} rings and
+ * hit {@link #MIN_CHANGERS_PER_RUN} color changers per run on average, so the
+ * check can't pass without playing.
+ *
+ * Before the runs, every {@link ObstacleCatalog} entry is solved with
+ * {@link LayoutSolver} at the sizes and in both directions the game spawns
+ * it, and must be passable by a ball of every color.
+ *
+ * Run with {@code --collision-check [runs]}.
+ */
+public class CollisionCheck {
+    private static final float REFERENCE_DT = 0.125f; // 480 Hz
+    private static final int[] TICK_FRAMES = {2, 4}; // 30 Hz and 15 Hz
+    private static final int INPUT_FRAMES = 4; // Jumps land on frames every low rate shares
+    private static final float FALL_DRIFT = 0.01f;
+    private static final int MIN_RINGS_PER_RUN = 10;
+    private static final int MIN_CHANGERS_PER_RUN = 4;
+    private static final int MAX_FRAMES = 60 * 60 * 2;
+    private static final float[] CATALOG_RADII = {3.5f, 4.25f, 5f, 5.75f, 6.5f}; // Outer radii rings spawn with
+
+    public static boolean run(int runs) {
+        boolean catalogPassable = checkCatalog();
+        int failures = 0;
+        int shortContacts = 0;
+        int shallowContacts = 0;
+        int fallLine = 0;
+        int shortEntries = 0;
+        long passedRings = 0;
+        long changersHit = 0;
+        for (int run = 0; run < runs; run++) {
+            long seed = 0x5EEDL * 31 + run;
+            Outcome reference = play(seed, REFERENCE_DT, false, null);
+            passedRings += reference.score;
+            changersHit += reference.changers;
+            for (int frames : TICK_FRAMES) {
+                Outcome swept = play(seed, frames, true, reference.jumps);
+                if (matches(reference, swept, frames)) continue;
+                if (reference.endFrame > swept.endFrame && swept.fatalContact < REFERENCE_DT) {
+                    shortContacts++;
+                    continue;
+                }
+                if (reference.endFrame > swept.endFrame && swept.fatalDepth < FALL_DRIFT) {
+                    shallowContacts++;
+                    continue;
+                }
+                if (onFallLine(reference) || onFallLine(swept)) {
+                    fallLine++;
+                    continue;
+                }
+                if (swept.score == reference.score + 1 && swept.fatalEntry < REFERENCE_DT
+                        && endsTogether(reference, swept, frames)) {
+                    shortEntries++;
+                    continue;
+                }
+                failures++;
+                System.out.printf("seed %d @ %d Hz: reference score %d ended at frame %.3f, swept score %d ended at frame %.3f%n",
+                        seed, 60 / frames, reference.score, reference.endFrame, swept.score, swept.endFrame);
+            }
+        }
+        int comparisons = runs * TICK_FRAMES.length;
+        int tolerated = shortContacts + shallowContacts + fallLine + shortEntries;
+        System.out.printf("Collision check: %d/%d runs match exactly, %d more only within a tolerance"
+                        + " (%d ended by a contact shorter than the reference step, %d by a graze shallower than its drift,"
+                        + " %d on the fall line, %d scored a ring entered for less than a reference step)%n",
+                comparisons - failures - tolerated, comparisons, tolerated,
+                shortContacts, shallowContacts, fallLine, shortEntries);
+        boolean exercised = passedRings >= (long) MIN_RINGS_PER_RUN * runs
+                && changersHit >= (long) MIN_CHANGERS_PER_RUN * runs;
+        System.out.printf("Reference runs passed %d rings and hit %d color changers (%.1f and %.1f per run, need %d and %d)%s%n",
+                passedRings, changersHit, (double) passedRings / runs, (double) changersHit / runs,
+                MIN_RINGS_PER_RUN, MIN_CHANGERS_PER_RUN, exercised ? "" : ": TOO FEW");
+        return catalogPassable && exercised && failures == 0;
+    }
+
+    /**
+     * Solves every catalog entry for every entry color.
+     */
+    private static boolean checkCatalog() {
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        LayoutSolver solver = new LayoutSolver(pool);
+        int allColors = (1 << Palette.COUNT) - 1;
+        int layouts = 0;
+        int failures = 0;
+        for (int id = 0; id < ObstacleCatalog.size(); id++) {
+            ObstacleDef def = ObstacleCatalog.byId(id);
+            for (float radius : CATALOG_RADII) {
+                for (float direction = -1; direction <= 1; direction += 2) {
+                    Layout layout = Layout.obstacle(def, radius, direction);
+                    int colors = solver.solvableColors(layout);
+                    layouts++;
+                    if (colors != allColors) {
+                        failures++;
+                        System.out.printf("%s at radius %.2f turning %+.0f: no path for colors with mask %s%n",
+                                def.getName(), radius, direction, Integer.toBinaryString(~colors & allColors));
+                    }
+                }
+            }
+        }
+        pool.shutdown();
+        System.out.printf("Catalog check: %d/%d obstacle layouts passable by every color%n", layouts - failures, layouts);
+        return failures == 0;
+    }
+
+    /**
+     * Same score, and the reference detected the end of the game within the
+     * swept run's final tick (give or take one reference step).
+     */
+    private static boolean matches(Outcome reference, Outcome swept, int frames) {
+        return swept.score == reference.score && endsTogether(reference, swept, frames);
+    }
+
+    private static boolean onFallLine(Outcome outcome) {
+        return Math.abs(outcome.endY - GameWorld.FALL_Y) < FALL_DRIFT;
+    }
+
+    private static boolean endsTogether(Outcome reference, Outcome swept, int frames) {
+        return reference.endFrame > swept.endFrame - frames
+                && reference.endFrame <= swept.endFrame + REFERENCE_DT;
+    }
+
+    /**
+     * Plays one game. With no schedule, a {@link Bot} decides at every input
+     * frame and its jumps are recorded; with one, those jumps are replayed.
+     */
+    private static Outcome play(long seed, float dt, boolean swept, BitSet schedule) {
+        GameWorld world = new GameWorld(seed);
+        world.setSweptCollisions(swept);
+        world.setObstacleVariety(false); // The reference only knows classic rings
+        Bot bot = schedule == null ? new Bot() : null;
+        BitSet jumps = schedule == null ? new BitSet() : schedule;
+
+        float frame = 0;
+        int block = 0;
+        while (!world.isGameOver() && frame < MAX_FRAMES) {
+            if (bot != null && bot.wantsJump(world)) jumps.set(block);
+            if (jumps.get(block)) world.jump();
+            // Step in whole input blocks so jumps happen at identical times
+            float blockEnd = frame + INPUT_FRAMES;
+            while (!world.isGameOver() && frame < blockEnd) {
+                world.update(dt);
+                frame += dt;
+            }
+            block++;
+        }
+        return new Outcome(world.getScore(), world.getChangersHit(), frame, world.getPlayerBall().getY(),
+                world.getFatalContactFrames(), world.getFatalEntryFrames(), world.getFatalContactDepth(), jumps);
+    }
+
+    /**
+     * Hovers like Game's demo player, jumping whenever the ball falls below a
+     * target height, but times each ring: it waits below the ring until the
+     * segment at its bottom has the ball's color for long enough to climb
+     * through, hovers in the middle, and leaves through the top the same way.
+     * Tight rings still catch it now and then.
+     */
+    private static final class Bot {
+        private static final float CLIMB_SPEED = 0.15f; // Units per frame while hopping upwards
+        private static final float MARGIN_FRAMES = 6;
+        private static final float JUMP_RISE = 3; // JUMP_VELOCITY^2 / -2 GRAVITY
+        private static final float HOVER_DIP = 1.2f; // How far the ball can fall below the target before an input frame
+
+        private Ring ring;
+        private boolean entering;
+        private boolean leaving;
+
+        boolean wantsJump(GameWorld world) {
+            PlayerBall ball = world.getPlayerBall();
+            float y = ball.getY();
+            float r = ball.getRadius();
+            Ring next = null;
+            for (Ring candidate : world.getRings()) {
+                if (candidate.getY() + candidate.getOuterRadius() > y - r
+                        && (next == null || candidate.getY() < next.getY())) {
+                    next = candidate;
+                }
+            }
+            if (next == null) return ball.getVelocityY() <= 0 && y < -2;
+            if (next != ring) {
+                ring = next;
+                entering = false;
+                leaving = false;
+            }
+
+            float ringY = ring.getY();
+            float inner = ring.getInnerRadius();
+            float outer = ring.getOuterRadius();
+            float hover = ringY - (JUMP_RISE - HOVER_DIP) / 2; // Hops span target - dip to target + rise
+            float target;
+            if (y + r <= ringY - outer && !entering) {
+                entering = clearFor(ring, 270, ball.getColorIndex(), ringY - inner + r - y);
+                target = entering ? hover : ringY - outer - r - JUMP_RISE - 0.1f;
+            } else if (y - r >= ringY - inner && y + r <= ringY + inner) {
+                if (!leaving) leaving = clearFor(ring, 90, ball.getColorIndex(), ringY + outer + r - y);
+                target = leaving ? ringY + outer + 2 * r : hover;
+            } else {
+                target = leaving ? ringY + outer + 2 * r : hover; // Crossing a band: keep going
+            }
+            return ball.getVelocityY() <= 0 && y < target;
+        }
+
+        /**
+         * Whether the segment at the given screen angle has this color and
+         * keeps it, ball width included, while the ball climbs this far.
+         */
+        private static boolean clearFor(Ring ring, float screenAngle, int color, float climb) {
+            float speed = ring.getRotationSpeed();
+            if (speed == 0) return false;
+            double relative = ((screenAngle - ring.getCurrentAngle()) % 360 + 360) % 360;
+            double segmentAngle = 360.0 / Palette.COUNT;
+            int segment = Math.min(Palette.COUNT - 1, (int) (relative / segmentAngle));
+            if (segment != color) return false;
+            double left = speed > 0 ? relative - segment * segmentAngle : (segment + 1) * segmentAngle - relative;
+            double halfWidth = Math.toDegrees(Math.asin(Math.min(1, 0.5 / ring.getInnerRadius())));
+            double frames = (left - halfWidth) / Math.abs(speed);
+            return frames >= climb / CLIMB_SPEED + MARGIN_FRAMES;
+        }
+    }
+
+    private static class Outcome {
+        final int score;
+        final int changers;
+        final float endFrame;
+        final float endY;
+        final float fatalContact;
+        final float fatalEntry;
+        final float fatalDepth;
+        final BitSet jumps;
+
+        Outcome(int score, int changers, float endFrame, float endY, float fatalContact, float fatalEntry,
+                float fatalDepth, BitSet jumps) {
+            this.score = score;
+            this.changers = changers;
+            this.endFrame = endFrame;
+            this.endY = endY;
+            this.fatalContact = fatalContact;
+            this.fatalEntry = fatalEntry;
+            this.fatalDepth = fatalDepth;
+            this.jumps = jumps;
+        }
+    }
+}
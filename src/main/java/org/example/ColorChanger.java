@@ -8,23 +8,33 @@ public class ColorChanger {
     private int colorIndex;
     private Random random = new Random();
 
-    private static final float[][] COLORS = {
-            {0.0f, 1.0f, 1.0f}, // Cyan
-            {1.0f, 1.0f, 0.0f}, // Yellow
-            {1.0f, 0.0f, 1.0f}, // Magenta
-            {0.5f, 0.0f, 1.0f}  // Purple
-    };
-
     public ColorChanger(float x, float y, float radius) {
         this.x = x;
         this.y = y;
         this.radius = radius;
-        this.colorIndex = random.nextInt(COLORS.length);
+        this.colorIndex = random.nextInt(Palette.COUNT);
+    }
+
+    public ColorChanger(float x, float y, float radius, int colorIndex) {
+        this.x = x;
+        this.y = y;
+        this.radius = radius;
+        this.colorIndex = colorIndex;
+    }
+
+    /**
+     * Reinitialize this changer in place (used when recycling).
+     */
+    public void set(float x, float y, float radius, int colorIndex) {
+        this.x = x;
+        this.y = y;
+        this.radius = radius;
+        this.colorIndex = colorIndex;
     }
 
-    public void draw(GL2 gl) {
-        gl.glColor3fv(COLORS[colorIndex], 0);
-        drawCircle(gl, x, y, radius, 16);
+    public void draw(GL2 gl, LevelOfDetail lod) {
+        gl.glColor3fv(Palette.COLORS[colorIndex], 0);
+        drawCircle(gl, x, y, radius, lod.circleSegments(radius));
     }
 
     private void drawCircle(GL2 gl, float cx, float cy, float r, int numSegments) {
@@ -43,8 +53,10 @@ public class ColorChanger {
     }
 
     // Getters and Setters
+    public float getX() { return x; }
     public float getY() { return y; }
     public void setY(float y) { this.y = y; }
+    public float getRadius() { return radius; }
     public int getColorIndex() { return colorIndex; }
 }
 
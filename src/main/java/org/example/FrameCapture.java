@@ -0,0 +1,320 @@
+package org.example;
+
+import com.jogamp.opengl.GL2;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records every rendered frame to an image sequence without stalling the
+ * render thread.
+ *
+ * Each frame is read back into one of {@link #PBO_COUNT} pixel buffer
+ * objects, which the GPU fills asynchronously; a buffer is only mapped
+ * {@code PBO_COUNT - 1} frames later, when the copy has long finished. Its
+ * pixels go into a pooled frame that a worker thread encodes and returns to
+ * the pool. If every pooled frame is still being encoded the new frame is
+ * dropped rather than waited for, so capture never slows the game down.
+ * Pixel memory is pooled: once the pool has grown to the window size, the
+ * render thread allocates nothing per frame, and the encoders only the
+ * file's name, path and stream.
+ *
+ * Without pixel buffer objects (some software renderers) frames are read
+ * straight into the pooled frame instead, which waits for the GPU but keeps
+ * encoding off the render thread.
+ */
+public class FrameCapture {
+    /** Pixel buffer objects in the read-back ring: triple buffering. */
+    public static final int PBO_COUNT = 3;
+
+    public enum Format {
+        /** 8-bit RGB PNG. */
+        PNG,
+        /** RGBA bytes as read back, bottom row first, size in the file name. */
+        RAW;
+
+        /**
+         * Parses a format name such as "png" or "RAW".
+         *
+         * @throws IllegalArgumentException naming the valid formats if there is no such format
+         */
+        public static Format fromName(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown capture format '" + name + "', expected one of "
+                        + Arrays.toString(values()).toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    private final Path directory;
+    private final Format format;
+    private final BlockingQueue<CapturedFrame> free;
+    private final ThreadPoolExecutor encoders;
+    private final ThreadLocal<PngEncoder> pngEncoders = ThreadLocal.withInitial(PngEncoder::new);
+    private final JoglCaptureGl jogl = new JoglCaptureGl();
+
+    // Read-back ring, oldest pending first. Render thread only
+    private final int[] pbos = new int[PBO_COUNT];
+    private final int[] pboFrames = new int[PBO_COUNT];
+    private boolean initialized;
+    private boolean usePbos;
+    private int pboBytes;
+    private int width, height;
+    private int oldest;
+    private int pending;
+    private int frameNumber;
+    private volatile boolean closed;
+
+    // Statistics
+    private long dropped;
+    private long readbackNanos;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong encodeNanos = new AtomicLong();
+
+    /**
+     * @param workers encoding threads; the pool holds two frames per worker
+     */
+    public FrameCapture(Path directory, Format format, int workers) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.format = format;
+        int poolSize = 2 * workers;
+        this.free = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            free.add(new CapturedFrame());
+        }
+        // The work queue can hold every pooled frame, so execute() never rejects or allocates
+        this.encoders = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(poolSize), runnable -> {
+                    Thread thread = new Thread(runnable, "frame-encoder");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        encoders.prestartAllCoreThreads();
+    }
+
+    /**
+     * Captures the frame just rendered. Called on the render thread before
+     * the buffers are swapped.
+     */
+    public void capture(GL2 gl, int width, int height) {
+        capture(jogl.wrap(gl), width, height);
+    }
+
+    void capture(CaptureGl gl, int width, int height) {
+        if (closed || width <= 0 || height <= 0) return;
+        long start = System.nanoTime();
+        if (!initialized) {
+            initialized = true;
+            usePbos = gl.hasPixelBuffers();
+            if (usePbos) gl.genBuffers(pbos);
+        }
+        if (width != this.width || height != this.height) {
+            drain(gl);
+            this.width = width;
+            this.height = height;
+        }
+
+        int frame = frameNumber++;
+        if (!usePbos) {
+            CapturedFrame target = take(frame);
+            if (target != null) {
+                gl.readPixels(width, height, target.pixels);
+                submit(target);
+            }
+            readbackNanos += System.nanoTime() - start;
+            return;
+        }
+
+        // The oldest read-back was issued PBO_COUNT - 1 frames ago, so mapping it won't wait
+        if (pending == PBO_COUNT) {
+            harvest(gl);
+        }
+        int slot = (oldest + pending) % PBO_COUNT;
+        gl.bindPackBuffer(pbos[slot]);
+        if (pboBytes != width * height * 4) {
+            // Sizes change together: drain() has emptied the ring
+            pboBytes = width * height * 4;
+            for (int pbo : pbos) {
+                gl.bindPackBuffer(pbo);
+                gl.allocatePackBuffer(pboBytes);
+            }
+            gl.bindPackBuffer(pbos[slot]);
+        }
+        gl.readPixelsToPackBuffer(width, height);
+        gl.bindPackBuffer(0);
+        pboFrames[slot] = frame;
+        pending++;
+        readbackNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Hands every pending read-back to the encoders, waiting for the GPU if
+     * needed. For when no more frames are coming for a while (the game went
+     * idle) or the size changes.
+     */
+    public void drain(GL2 gl) {
+        drain(jogl.wrap(gl));
+    }
+
+    void drain(CaptureGl gl) {
+        while (pending > 0) {
+            harvest(gl);
+        }
+    }
+
+    /**
+     * Drains, waits for the encoders to finish and prints what was recorded.
+     * Call on the render thread with its context current, as the game does
+     * from {@code dispose()}; without a context (null) read-backs still
+     * pending are lost. Later captures are ignored.
+     */
+    public void close(GL2 gl) {
+        close(gl == null ? null : jogl.wrap(gl));
+    }
+
+    synchronized void close(CaptureGl gl) {
+        if (closed) return;
+        if (gl != null) {
+            drain(gl);
+            if (usePbos) gl.deleteBuffers(pbos);
+        }
+        closed = true;
+        encoders.shutdown();
+        try {
+            encoders.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println(summary());
+    }
+
+    /**
+     * Maps the oldest pending pixel buffer and copies it into a pooled frame,
+     * or drops it if the pool is empty.
+     */
+    private void harvest(CaptureGl gl) {
+        int slot = oldest;
+        oldest = (oldest + 1) % PBO_COUNT;
+        pending--;
+
+        CapturedFrame target = take(pboFrames[slot]);
+        if (target == null) return;
+        gl.bindPackBuffer(pbos[slot]);
+        ByteBuffer mapped = gl.mapPackBuffer();
+        if (mapped != null) {
+            mapped.limit(target.pixels.limit());
+            target.pixels.put(mapped);
+            target.pixels.flip();
+            gl.unmapPackBuffer();
+            submit(target);
+        } else {
+            failed.incrementAndGet();
+            free.add(target);
+        }
+        gl.bindPackBuffer(0);
+    }
+
+    /**
+     * A free pooled frame sized for the current window, or null (and the frame
+     * counted as dropped) if they're all still being encoded.
+     */
+    private CapturedFrame take(int frame) {
+        CapturedFrame target = free.poll();
+        if (target == null) {
+            dropped++;
+            return null;
+        }
+        target.prepare(frame, width, height);
+        return target;
+    }
+
+    private void submit(CapturedFrame frame) {
+        try {
+            encoders.execute(frame);
+        } catch (RejectedExecutionException e) {
+            free.add(frame); // Closed from another thread meanwhile
+        }
+    }
+
+    /** Frames written to disk. */
+    public long getWritten() { return written.get(); }
+    /** Frames skipped because the encoders were behind. */
+    public long getDropped() { return dropped; }
+    /** Frames lost to a failed map or write. */
+    public long getFailed() { return failed.get(); }
+
+    public String summary() {
+        long total = frameNumber;
+        return String.format("Capture: %d frames to %s as %s, %d written, %d dropped (%.1f%%), %d failed;"
+                        + " read-back %.3f ms/frame on the render thread (%s), encode %.2f ms/frame",
+                total, directory, format, written.get(), dropped, total == 0 ? 0 : 100.0 * dropped / total,
+                failed.get(), total == 0 ? 0 : readbackNanos / 1e6 / total,
+                usePbos ? PBO_COUNT + " pixel buffers" : "synchronous",
+                written.get() == 0 ? 0 : encodeNanos.get() / 1e6 / written.get());
+    }
+
+    /**
+     * A pooled frame: its pixels and the task that encodes them.
+     */
+    private final class CapturedFrame implements Runnable {
+        ByteBuffer pixels = ByteBuffer.allocateDirect(0);
+        int frame, width, height;
+
+        void prepare(int frame, int width, int height) {
+            this.frame = frame;
+            this.width = width;
+            this.height = height;
+            int bytes = width * height * 4;
+            if (pixels.capacity() < bytes) {
+                pixels = ByteBuffer.allocateDirect(bytes); // Only when the window grows
+            }
+            pixels.clear().limit(bytes);
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            try {
+                if (format == Format.PNG) {
+                    Path file = directory.resolve(String.format("frame_%06d.png", frame));
+                    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+                        pngEncoders.get().write(pixels, width, height, out);
+                    }
+                } else {
+                    Path file = directory.resolve(String.format("frame_%06d_%dx%d.rgba", frame, width, height));
+                    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                        while (pixels.hasRemaining()) {
+                            channel.write(pixels);
+                        }
+                    }
+                }
+                written.incrementAndGet();
+                encodeNanos.addAndGet(System.nanoTime() - start);
+            } catch (IOException e) {
+                if (failed.getAndIncrement() == 0) {
+                    System.err.println("Frame capture failed: " + e.getMessage());
+                }
+            } finally {
+                free.add(this);
+            }
+        }
+    }
+}
@@ -5,28 +5,20 @@ import com.jogamp.opengl.GLAutoDrawable;
 import com.jogamp.opengl.GLEventListener;
 import com.jogamp.opengl.awt.GLCanvas;
 
+import java.awt.Window;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.concurrent.ForkJoinPool;
 
 public class Game implements GLEventListener {
-    // Game constants
-    private static final float GRAVITY = -0.015f;
-    private static final float JUMP_VELOCITY = 0.3f;
-    private static final float BASE_RING_SPACING = 20.0f; // Increased spacing between rings
-
-    // Game objects
-    private PlayerBall playerBall;
-    private List<Ring> rings;
-    private List<ColorChanger> colorChangers;
-    private BackgroundStars backgroundStars;
-
-    // Game state
-    private int score;
-    private boolean isGameOver;
-    private final Random random = new Random();
+    // Game simulation
+    private final GameWorld world = new GameWorld();
+    private BackgroundStars backgroundStars; // Stars moved on the CPU, when the GPU starfield is off or unsupported
+    private GpuStarfield gpuStars;
+    private boolean gpuStarsEnabled;
+    private long starFrames; // Frames the stars have been falling
 
     // UI and High Score
     private ScoreUI scoreUI;
@@ -34,16 +26,150 @@ public class Game implements GLEventListener {
 
     // Rendering
     private final GLCanvas canvas;
+    private final LevelOfDetail lod;
+
+    // Practice mode: snapshots of the last few seconds for rewind-and-retry
+    private static final int TICKS_PER_SECOND = 60;
+    private static final int REWIND_SECONDS = 3;
+    private final RewindBuffer rewindBuffer = new RewindBuffer(world, 5 * TICKS_PER_SECOND);
+
+    // Layouts are checked for solvability ahead of play, leaving a core for rendering
+    private final ForkJoinPool solverPool =
+            new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    private final LayoutPipeline layoutPipeline = new LayoutPipeline(new LayoutSolver(solverPool));
+
+    // Input is queued by the AWT thread and applied on the render thread
+    private volatile boolean spacePressed;
+    private volatile boolean rewindPressed;
+    private volatile boolean pausePressed;
+    private volatile boolean windowActive = true;
+
+    // Pausing, and on-demand rendering while nothing moves (optional)
+    private volatile boolean paused;
+    private volatile boolean autoPaused; // Paused because the window went inactive
+    private RenderScheduler renderScheduler;
+    private volatile long framesDrawn;
+    private volatile boolean gameOver; // The world's flag, published after each tick for other threads
+    private Runnable quitAction = () -> System.exit(0);
+
+    // Demo play without input, for headless capture
+    private boolean autoPlay;
+    private int gameOverFrames;
+
+    // Frame capture (optional)
+    private FrameCapture frameCapture;
+
+    // Telemetry (optional)
+    private Telemetry telemetry;
+    private long lastFrameNanos;
 
     // Camera/World bounds for background
     private float worldMinX = -10f;
     private float worldMaxX = 10f;
     private float worldMinY = -20f;
     private float worldMaxY = 20f;
-    private float cameraOffsetY = 0f;
 
     public Game(GLCanvas canvas) {
+        this(canvas, RenderQuality.MEDIUM);
+    }
+
+    /**
+     * @param canvas the canvas to take key input from, or null when rendering offscreen
+     */
+    public Game(GLCanvas canvas, RenderQuality quality) {
         this.canvas = canvas;
+        this.lod = new LevelOfDetail(quality);
+        world.setLayoutPipeline(layoutPipeline);
+    }
+
+    /**
+     * Stop the animator whenever the picture can't change until the next input.
+     */
+    public void setRenderScheduler(RenderScheduler renderScheduler) {
+        this.renderScheduler = renderScheduler;
+    }
+
+    /**
+     * What Escape does. Should stop the animator and dispose the window before
+     * exiting, so {@link #dispose} still finishes any capture.
+     */
+    public void setQuitAction(Runnable quitAction) {
+        this.quitAction = quitAction;
+    }
+
+    /**
+     * Pause while the window is minimized or unfocused, and resume when it
+     * comes back.
+     */
+    public void watchWindow(Window window) {
+        WindowAdapter activity = new WindowAdapter() {
+            @Override
+            public void windowIconified(WindowEvent e) {
+                setWindowActive(false);
+            }
+
+            @Override
+            public void windowDeiconified(WindowEvent e) {
+                setWindowActive(true);
+            }
+
+            @Override
+            public void windowLostFocus(WindowEvent e) {
+                setWindowActive(false);
+            }
+
+            @Override
+            public void windowGainedFocus(WindowEvent e) {
+                setWindowActive(true);
+            }
+        };
+        window.addWindowListener(activity);
+        window.addWindowFocusListener(activity);
+    }
+
+    void setWindowActive(boolean active) {
+        windowActive = active;
+        wake();
+    }
+
+    boolean isGameOver() {
+        return gameOver;
+    }
+
+    long getFramesDrawn() {
+        return framesDrawn;
+    }
+
+    /**
+     * Record every frame rendered to an image sequence.
+     */
+    public void setFrameCapture(FrameCapture frameCapture) {
+        this.frameCapture = frameCapture;
+    }
+
+    /**
+     * Jump whenever the ball falls low and restart a second after dying, in
+     * place of a player.
+     */
+    public void setAutoPlay(boolean autoPlay) {
+        this.autoPlay = autoPlay;
+    }
+
+    /**
+     * Draw the starfield with a vertex shader, or move every star on the CPU
+     * (the default until the shader has been checked on real GPUs). Takes
+     * effect when the GL context is initialized.
+     */
+    public void setGpuStars(boolean gpuStars) {
+        this.gpuStarsEnabled = gpuStars;
+    }
+
+    /**
+     * Record gameplay events and frame times to the given log.
+     */
+    public void setTelemetry(Telemetry telemetry) {
+        this.telemetry = telemetry;
+        world.setTelemetry(telemetry);
     }
 
     @Override
@@ -52,15 +178,28 @@ public class Game implements GLEventListener {
         // Dark space background (near black with slight blue tint)
         gl.glClearColor(0.02f, 0.03f, 0.08f, 1.0f);
 
-        // Initialize background stars
-        backgroundStars = new BackgroundStars(worldMinX, worldMaxX, worldMinY, worldMaxY);
+        // Initialize background stars, on the GPU if shaders are available
+        if (gpuStarsEnabled) {
+            gpuStars = new GpuStarfield(lod.getQuality().getStarCount());
+            if (!gpuStars.init(gl)) {
+                System.err.println("Shaders unavailable, drawing the starfield on the CPU");
+                gpuStars = null;
+            }
+        }
+        if (gpuStars == null) {
+            backgroundStars = new BackgroundStars(worldMinX, worldMaxX, worldMinY, worldMaxY,
+                    lod.getQuality().getStarCount());
+        }
 
         // Initialize UI and high score manager
         scoreUI = new ScoreUI();
+        scoreUI.setShadows(lod.getQuality().isTextShadows());
         highScoreManager = new HighScoreManager();
 
         resetGame();
-        setupKeyListeners();
+        if (canvas != null) {
+            setupKeyListeners();
+        }
     }
 
     private void setupOrthographicProjection(GL2 gl, int width, int height) {
@@ -72,51 +211,13 @@ public class Game implements GLEventListener {
     }
 
     private void resetGame() {
-        playerBall = new PlayerBall(-8, 0.5f); // Start ball much lower to avoid initial collision
-        rings = new ArrayList<>();
-        colorChangers = new ArrayList<>();
-        score = 0;
-        isGameOver = false;
-        cameraOffsetY = 0f; // Reset camera offset
+        world.reset();
+        rewindBuffer.clear();
 
         // Reset UI fade animation
         if (scoreUI != null) {
             scoreUI.resetFade();
         }
-
-        spawnInitialRings();
-    }
-
-    private void spawnInitialRings() {
-        // Spawn first ring well above the player (at y=5.0f when player is at y=-8)
-        spawnRing(5.0f);
-        // Spawn subsequent rings with proper spacing
-        for (int i = 1; i < 3; i++) {
-            float lastRingY = rings.get(rings.size() - 1).getY();
-            float spacing = BASE_RING_SPACING + random.nextFloat() * 4.0f; // 12-16 units spacing
-            spawnRing(lastRingY + spacing);
-        }
-    }
-
-    private void spawnRing(float y) {
-        // Varied ring sizes - outer radius between 3.5 and 6.5
-        float outerRadius = 3.5f + random.nextFloat() * 3.0f;
-        float thickness = 0.8f + random.nextFloat() * 0.7f; // Thickness between 0.8 and 1.5
-        float innerRadius = outerRadius - thickness;
-
-        // Rotation speed inversely proportional to size
-        // Larger rings rotate slower, smaller rings rotate faster
-        float baseSpeed = 1.5f;
-        float rotationSpeed = baseSpeed * (4.5f / outerRadius); // Speed factor based on radius
-        rotationSpeed *= (random.nextBoolean() ? 1 : -1); // Random direction
-
-        rings.add(new Ring(y, innerRadius, outerRadius, rotationSpeed));
-
-        // Spawn a color changer occasionally between rings
-        if (random.nextFloat() > 0.6f) {
-            float colorChangerY = y + (BASE_RING_SPACING / 2);
-            colorChangers.add(new ColorChanger(0, colorChangerY, 0.35f));
-        }
     }
 
     private void setupKeyListeners() {
@@ -124,15 +225,18 @@ public class Game implements GLEventListener {
             @Override
             public void keyPressed(KeyEvent e) {
                 if (e.getKeyCode() == KeyEvent.VK_SPACE) {
-                    if (isGameOver) {
-                        resetGame();
-                    } else {
-                        playerBall.jump(JUMP_VELOCITY);
-                    }
+                    spacePressed = true;
+                }
+                if (e.getKeyCode() == KeyEvent.VK_R || e.getKeyCode() == KeyEvent.VK_BACK_SPACE) {
+                    rewindPressed = true;
+                }
+                if (e.getKeyCode() == KeyEvent.VK_P) {
+                    pausePressed = true;
                 }
                 if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
-                    System.exit(0);
+                    quitAction.run();
                 }
+                wake();
             }
         });
         // Request focus for the canvas to receive key events.
@@ -144,25 +248,127 @@ public class Game implements GLEventListener {
         if (scoreUI != null) {
             scoreUI.dispose();
         }
+        if (telemetry != null) {
+            telemetry.close();
+        }
+        if (frameCapture != null) {
+            frameCapture.close(drawable.getGL().getGL2());
+        }
+        if (gpuStars != null) {
+            gpuStars.dispose(drawable.getGL().getGL2());
+        }
+        layoutPipeline.shutdown();
+        solverPool.shutdownNow();
     }
 
     @Override
     public void display(GLAutoDrawable drawable) {
+        long frameStart = System.nanoTime();
+        if (renderScheduler != null) {
+            renderScheduler.frameStarted();
+        }
         GL2 gl = drawable.getGL().getGL2();
         gl.glClear(GL2.GL_COLOR_BUFFER_BIT);
         gl.glLoadIdentity();
 
+        GameEvents.Tick tickEvent = new GameEvents.Tick();
+        tickEvent.begin();
         update();
+        gameOver = world.isGameOver();
+        tickEvent.end();
+        if (tickEvent.shouldCommit()) {
+            tickEvent.tick = world.getTick();
+            tickEvent.session = world.getSession();
+            tickEvent.score = world.getScore();
+            tickEvent.rings = world.getRings().size();
+            tickEvent.obstacles = world.getObstacles().getCount();
+            tickEvent.gameOver = world.isGameOver();
+            tickEvent.commit();
+        }
+
+        GameEvents.Render renderEvent = new GameEvents.Render();
+        renderEvent.begin();
         render(gl);
+        renderEvent.end();
+        if (renderEvent.shouldCommit()) {
+            renderEvent.stars = lod.getQuality().getStarCount();
+            renderEvent.rings = world.getRings().size();
+            renderEvent.obstacles = world.getObstacles().getCount();
+            renderEvent.quality = lod.getQuality().name();
+            renderEvent.commit();
+        }
+
+        if (frameCapture != null) {
+            frameCapture.capture(gl, drawable.getSurfaceWidth(), drawable.getSurfaceHeight());
+        }
+
+        if (telemetry != null) {
+            long frameEnd = System.nanoTime();
+            float sinceLast = lastFrameNanos == 0 ? 0 : (frameStart - lastFrameNanos) / 1e6f;
+            telemetry.record(Telemetry.FRAME_TIME, world.getSession(), world.getTick(), world.getScore(),
+                    (frameEnd - frameStart) / 1e6f, sinceLast);
+            lastFrameNanos = frameStart;
+        }
+        framesDrawn++;
+
+        // This frame stays on screen until the next input, so stop redrawing it
+        if (renderScheduler != null && isIdle()) {
+            if (frameCapture != null) {
+                frameCapture.drain(gl);
+            }
+            renderScheduler.sleep(this::isIdle);
+            lastFrameNanos = 0;
+        }
+    }
+
+    /**
+     * Whether nothing on screen can change until the next input.
+     */
+    private boolean isIdle() {
+        if (spacePressed || rewindPressed || pausePressed) return false;
+        if (windowActive && autoPaused) return false; // About to resume
+        return paused || gameOver; // Called on the scheduler's thread too
+    }
+
+    private void wake() {
+        if (renderScheduler != null) {
+            renderScheduler.wake();
+        }
     }
 
     private void update() {
-        if (isGameOver) return;
+        updatePause();
+        if (paused) {
+            if (rewindPressed) {
+                rewindPressed = false;
+                rewindBuffer.rewind(REWIND_SECONDS * TICKS_PER_SECOND);
+            }
+            return;
+        }
 
-        playerBall.applyGravity(GRAVITY);
-        playerBall.update();
+        if (autoPlay) {
+            playForUser();
+        }
+        if (spacePressed) {
+            spacePressed = false;
+            if (world.isGameOver()) {
+                resetGame();
+            } else {
+                world.jump();
+            }
+        }
+        if (rewindPressed) {
+            rewindPressed = false;
+            rewindBuffer.rewind(REWIND_SECONDS * TICKS_PER_SECOND);
+        }
+
+        if (world.isGameOver()) return;
+
+        world.update(1f);
+        rewindBuffer.capture();
 
         // Update background stars
+        starFrames++;
         if (backgroundStars != null) {
             backgroundStars.update(0); // Stars fall on their own, not affected by camera
         }
@@ -172,93 +378,78 @@ public class Game implements GLEventListener {
             scoreUI.update();
         }
 
-        // Move camera (world) down to follow the ball
-        if (playerBall.getY() > 0) {
-            float dy = playerBall.getY();
-            playerBall.setY(0);
-            cameraOffsetY += dy; // Track camera offset for background
-            for (Ring ring : rings) {
-                ring.setY(ring.getY() - dy);
-            }
-            for (ColorChanger changer : colorChangers) {
-                changer.setY(changer.getY() - dy);
-            }
-        }
-
-        // Check for collisions
-        checkCollisions();
-
-        // Update rings
-        rings.forEach(Ring::update);
-
-        // Remove off-screen elements and spawn new ones
-        rings.removeIf(ring -> ring.getY() < -20);
-        colorChangers.removeIf(changer -> changer.getY() < -20);
-
-        // Spawn new ring when the last one is getting close
-        if (!rings.isEmpty() && rings.get(rings.size() - 1).getY() < 15) {
-            float lastRingY = rings.get(rings.size() - 1).getY();
-            float spacing = BASE_RING_SPACING + random.nextFloat() * 4.0f;
-            spawnRing(lastRingY + spacing);
+        // Update high score when game ends
+        if (world.isGameOver() && highScoreManager != null) {
+            highScoreManager.updateHighScore(world.getScore());
         }
     }
 
-    private void checkCollisions() {
-        // Ring collision
-        for (Ring ring : rings) {
-            if (playerBall.isCollidingWithRing(ring)) {
-                int segment = ring.getSegmentAtAngle(playerBall.getX(), playerBall.getY());
-                if (segment != playerBall.getColorIndex()) {
-                    isGameOver = true;
-                    // Update high score when game ends
-                    if (highScoreManager != null) {
-                        highScoreManager.updateHighScore(score);
-                    }
-                    return;
-                } else if (!ring.isPassed()) {
-                    score++;
-                    ring.setPassed(true);
-                    System.out.println("Score: " + score);
-                }
+    private void playForUser() {
+        if (world.isGameOver()) {
+            if (++gameOverFrames >= TICKS_PER_SECOND) {
+                gameOverFrames = 0;
+                spacePressed = true;
             }
-        }
-
-        // Color changer collision
-        colorChangers.forEach(changer -> {
-            if (changer.isColliding(playerBall)) {
-                playerBall.setColor(changer.getColorIndex());
-                changer.setY(-20); // "Remove" it
+        } else {
+            PlayerBall ball = world.getPlayerBall();
+            if (ball.getVelocityY() <= 0 && ball.getY() < -2) {
+                spacePressed = true;
             }
-        });
+        }
+    }
 
-        // Out of bounds
-        if (playerBall.getY() < -12) {
-            isGameOver = true;
-            // Update high score when game ends
-            if (highScoreManager != null) {
-                highScoreManager.updateHighScore(score);
+    /**
+     * Applies the pause key and window activity. Space also resumes.
+     */
+    private void updatePause() {
+        if (pausePressed) {
+            pausePressed = false;
+            if (!world.isGameOver()) {
+                paused = !paused;
+                autoPaused = false;
             }
         }
+        if (!windowActive && !paused && !world.isGameOver()) {
+            paused = true;
+            autoPaused = true;
+        } else if (windowActive && autoPaused) {
+            paused = false;
+            autoPaused = false;
+        }
+        if (paused && spacePressed) {
+            spacePressed = false;
+            paused = false;
+            autoPaused = false;
+        }
     }
 
     private void render(GL2 gl) {
         // Render background stars first (behind everything)
-        if (backgroundStars != null) {
-            backgroundStars.draw(gl);
+        if (gpuStars != null) {
+            gpuStars.draw(gl, starFrames, world.getCameraOffsetY(), worldMinX, worldMaxX, worldMinY, worldMaxY, lod);
+        } else if (backgroundStars != null) {
+            if (lod.getQuality().isStarsAsCircles()) {
+                backgroundStars.drawAsCircles(gl, lod);
+            } else {
+                backgroundStars.draw(gl);
+            }
         }
 
         // Render game objects
-        playerBall.draw(gl);
-        rings.forEach(ring -> ring.draw(gl));
-        colorChangers.forEach(changer -> changer.draw(gl));
+        world.getPlayerBall().draw(gl, lod);
+        world.getRings().forEach(ring -> ring.draw(gl, lod));
+        world.getObstacles().draw(gl, lod);
+        world.getColorChangers().forEach(changer -> changer.draw(gl, lod));
 
         // Render score UI overlay (always on top)
         if (scoreUI != null && highScoreManager != null) {
-            scoreUI.draw(gl, score, highScoreManager.getHighScore());
+            scoreUI.draw(gl, world.getScore(), highScoreManager.getHighScore());
 
             // Draw game over screen if game ended
-            if (isGameOver) {
+            if (world.isGameOver()) {
                 scoreUI.drawGameOver(gl);
+            } else if (paused) {
+                scoreUI.drawPaused(gl);
             }
         }
     }
@@ -268,6 +459,7 @@ public class Game implements GLEventListener {
         GL2 gl = drawable.getGL().getGL2();
         gl.glViewport(0, 0, width, height);
         setupOrthographicProjection(gl, width, height);
+        lod.updateViewport(width, height);
 
         // Update world bounds for background stars
         worldMaxY = 10 * (float) height / width;
@@ -0,0 +1,150 @@
+package org.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+/**
+ * Java Flight Recorder events for the game loop, so hitches can be lined up
+ * with GC, JIT and I/O in the same recording.
+ *
+ * Use them as {@code begin()}, work, {@code end()}, then fill in fields and
+ * {@code commit()} only if {@code shouldCommit()}. With no recording running
+ * every call is a no-op the JIT removes, allocation included. See
+ * {@code colorswitch.jfc} for the bundled settings and {@link JfrAnalyzer}.
+ */
+public final class GameEvents {
+    private static final String CATEGORY = "Color Switch";
+    private static final String SETTINGS = "colorswitch.jfc";
+
+    private GameEvents() {
+    }
+
+    /**
+     * Starts recording with the bundled settings. The recording is written to
+     * {@code file} when it is stopped or the JVM exits.
+     */
+    public static Recording startRecording(Path file) throws IOException {
+        try (Reader reader = new InputStreamReader(
+                GameEvents.class.getResourceAsStream(SETTINGS), StandardCharsets.UTF_8)) {
+            Recording recording = new Recording(Configuration.create(reader));
+            recording.setName("Color Switch");
+            recording.setDestination(file);
+            recording.setDumpOnExit(true);
+            recording.start();
+            return recording;
+        } catch (ParseException e) {
+            throw new IOException("Bad bundled settings " + SETTINGS, e);
+        }
+    }
+
+    @Name("org.example.Tick")
+    @Label("Game Tick")
+    @Description("One Game.update: input, simulation, rewind capture and UI updates")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static final class Tick extends Event {
+        @Label("Tick")
+        public int tick;
+        @Label("Session")
+        public int session;
+        @Label("Score")
+        public int score;
+        @Label("Rings")
+        public int rings;
+        @Label("Obstacles")
+        public int obstacles;
+        @Label("Game Over")
+        public boolean gameOver;
+    }
+
+    @Name("org.example.Collisions")
+    @Label("Collision Pass")
+    @Description("GameWorld's collision tests for one tick")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static final class Collisions extends Event {
+        @Label("Swept")
+        public boolean swept;
+        @Label("Rings")
+        public int rings;
+        @Label("Color Changers")
+        public int changers;
+        @Label("Obstacles")
+        public int obstacles;
+        @Label("Died")
+        public boolean died;
+    }
+
+    @Name("org.example.Spawn")
+    @Label("Spawn")
+    @Description("GameWorld.spawnRing: taking a ready layout (or a fallback ring) and placing it")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static final class Spawn extends Event {
+        @Label("Obstacle")
+        public String obstacle;
+        @Label("Y")
+        public float y;
+        @Label("Entry Color")
+        public int entryColor;
+        @Label("Color Changer")
+        public boolean changer;
+        @Label("Checked")
+        @Description("Whether the layout came from the solver pipeline")
+        public boolean checked;
+    }
+
+    @Name("org.example.Render")
+    @Label("Render")
+    @Description("Game.render: stars, ball, obstacles and UI")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static final class Render extends Event {
+        @Label("Stars")
+        public int stars;
+        @Label("Rings")
+        public int rings;
+        @Label("Obstacles")
+        public int obstacles;
+        @Label("Quality")
+        public String quality;
+    }
+
+    @Name("org.example.ScoreDraw")
+    @Label("Score Overlay")
+    @Description("ScoreUI.draw: text rendering of the score and high score")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static final class ScoreDraw extends Event {
+        @Label("Score")
+        public int score;
+        @Label("High Score")
+        public int highScore;
+    }
+
+    @Name("org.example.HighScoreUpdate")
+    @Label("High Score Update")
+    @Description("HighScoreManager.updateHighScore, including the Preferences write")
+    @Category(CATEGORY)
+    public static final class HighScoreUpdate extends Event {
+        @Label("Score")
+        public int score;
+        @Label("Previous High Score")
+        public int previous;
+        @Label("Saved")
+        public boolean saved;
+    }
+}
@@ -0,0 +1,348 @@
+package org.example;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hosts many independent headless games over TCP, one per connection.
+ *
+ * One selector thread accepts connections and reads input (single
+ * {@link StateCodec#INPUT_JUMP} bytes). Sessions are spread over shards, and
+ * a small scheduled pool runs every shard at 60 Hz: each tick applies the
+ * session's input, updates its {@link GameWorld} and writes a
+ * {@link StateCodec} message to its socket without blocking. A client that
+ * stops reading has snapshots skipped instead of holding up the shard.
+ *
+ * Run with {@code --server [--port P] [--threads T]}; see {@link LoadTestClient}
+ * for a client and load test.
+ */
+public class GameServer {
+    public static final int DEFAULT_PORT = 7777;
+    public static final int TICKS_PER_SECOND = 60;
+    private static final long TICK_NANOS = 1_000_000_000L / TICKS_PER_SECOND;
+    /** Shards per scheduler thread, so a slow shard delays few sessions. */
+    private static final int SHARDS_PER_THREAD = 4;
+    // Tick lateness and duration histograms: 10 microsecond buckets up to 100 ms
+    private static final int HISTOGRAM_BUCKETS = 10_000;
+    private static final long BUCKET_NANOS = 10_000;
+    private static final int REPORT_SECONDS = 10;
+
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final Thread selectorThread;
+    private final ScheduledExecutorService scheduler;
+    private final int threads;
+    private final Shard[] shards;
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private volatile boolean running;
+    private long nextSeed;
+    private int nextShard;
+
+    // Statistics
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder snapshotsSkipped = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private volatile long selectorCpuNanos;
+
+    public GameServer(InetSocketAddress address, int threads) throws IOException {
+        this.threads = threads;
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, 1024);
+        serverChannel.configureBlocking(false);
+        this.selector = Selector.open();
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.selectorThread = new Thread(this::select, "server-selector");
+        this.scheduler = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "server-tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.shards = new Shard[threads * SHARDS_PER_THREAD];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    public static void run(String[] args) throws IOException, InterruptedException {
+        int port = DEFAULT_PORT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals("--port")) port = Integer.parseInt(args[i + 1]);
+            if (args[i].equals("--threads")) threads = Integer.parseInt(args[i + 1]);
+        }
+        GameServer server = new GameServer(new InetSocketAddress(port), threads);
+        server.start();
+        System.out.printf("Serving on port %d with %d tick thread%s%n", server.getPort(), threads, threads == 1 ? "" : "s");
+        Stats previous = server.stats();
+        while (true) {
+            Thread.sleep(REPORT_SECONDS * 1000L);
+            Stats current = server.stats();
+            current.since(previous).print(System.out);
+            previous = current;
+        }
+    }
+
+    public void start() {
+        running = true;
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        // Stagger the shards across the tick so they don't all wake at once
+        for (int i = 0; i < shards.length; i++) {
+            scheduler.scheduleAtFixedRate(shards[i], TICK_NANOS * i / shards.length, TICK_NANOS, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void stop() throws IOException {
+        running = false;
+        selector.wakeup();
+        scheduler.shutdownNow();
+        try {
+            selectorThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Accepts connections and reads input until stopped.
+     */
+    private void select() {
+        ByteBuffer input = ByteBuffer.allocateDirect(4096);
+        while (running) {
+            try {
+                selector.select(100);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else if (key.isReadable()) {
+                        read(key, input);
+                    }
+                }
+            } catch (IOException e) {
+                if (running) System.err.println("Server selector: " + e.getMessage());
+            }
+            selectorCpuNanos = threadBean.getCurrentThreadCpuTime();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            ServerSession session = new ServerSession(channel, nextSeed++, bytesSent, snapshotsSkipped);
+            channel.register(selector, SelectionKey.OP_READ, session);
+            shards[nextShard].joining.add(session);
+            nextShard = (nextShard + 1) % shards.length;
+            sessions.incrementAndGet();
+        }
+    }
+
+    private void read(SelectionKey key, ByteBuffer input) {
+        ServerSession session = (ServerSession) key.attachment();
+        try {
+            input.clear();
+            int read = ((SocketChannel) key.channel()).read(input);
+            if (read < 0) {
+                key.cancel();
+                session.close();
+                return;
+            }
+            bytesReceived.add(read);
+            for (int i = 0; i < read; i++) {
+                if (input.get(i) == StateCodec.INPUT_JUMP) {
+                    session.requestJump();
+                }
+            }
+        } catch (IOException e) {
+            key.cancel();
+            session.close();
+        }
+    }
+
+    /**
+     * A group of sessions ticked together by whichever scheduler thread is free.
+     */
+    private final class Shard implements Runnable {
+        final Queue<ServerSession> joining = new ConcurrentLinkedQueue<>();
+        private final List<ServerSession> members = new ArrayList<>();
+        private long anchor;
+
+        // Statistics, read unsynchronized by stats(); a report may be a tick stale
+        volatile long ticks;
+        volatile long cpuNanos;
+        final long[] lateness = new long[HISTOGRAM_BUCKETS + 1];
+        final long[] durations = new long[HISTOGRAM_BUCKETS + 1];
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            long cpuStart = threadBean.getCurrentThreadCpuTime();
+            if (ticks == 0) anchor = start;
+            lateness[bucket(start - anchor - ticks * TICK_NANOS)]++;
+
+            ServerSession joined;
+            while ((joined = joining.poll()) != null) {
+                members.add(joined);
+            }
+            for (int i = members.size() - 1; i >= 0; i--) {
+                ServerSession session = members.get(i);
+                if (!session.isClosed()) {
+                    try {
+                        session.tick();
+                        continue;
+                    } catch (IOException e) {
+                        session.close();
+                    } catch (RuntimeException e) {
+                        // A bug in one game must not escape: the executor would cancel the whole shard
+                        System.err.println("Server session failed and was closed: " + e);
+                        session.close();
+                    }
+                }
+                // Swap-remove; order within a shard doesn't matter
+                members.set(i, members.get(members.size() - 1));
+                members.remove(members.size() - 1);
+                sessions.decrementAndGet();
+            }
+
+            durations[bucket(System.nanoTime() - start)]++;
+            cpuNanos += threadBean.getCurrentThreadCpuTime() - cpuStart;
+            ticks++;
+        }
+    }
+
+    private static int bucket(long nanos) {
+        return (int) Math.min(HISTOGRAM_BUCKETS, Math.max(0, nanos / BUCKET_NANOS));
+    }
+
+    /**
+     * Cumulative counters now; subtract an earlier one with {@link Stats#since}.
+     */
+    public Stats stats() {
+        Stats stats = new Stats();
+        stats.nanos = System.nanoTime();
+        stats.sessions = sessions.get();
+        stats.threads = threads;
+        stats.bytesSent = bytesSent.sum();
+        stats.bytesReceived = bytesReceived.sum();
+        stats.snapshotsSkipped = snapshotsSkipped.sum();
+        stats.selectorCpuNanos = selectorCpuNanos;
+        for (Shard shard : shards) {
+            stats.shardTicks += shard.ticks;
+            stats.tickCpuNanos += shard.cpuNanos;
+            for (int i = 0; i <= HISTOGRAM_BUCKETS; i++) {
+                stats.lateness[i] += shard.lateness[i];
+                stats.durations[i] += shard.durations[i];
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Server counters at one moment, or the difference between two.
+     */
+    public static final class Stats {
+        long nanos;
+        int sessions;
+        int threads;
+        long shardTicks;
+        long tickCpuNanos;
+        long selectorCpuNanos;
+        long bytesSent;
+        long bytesReceived;
+        long snapshotsSkipped;
+        final long[] lateness = new long[HISTOGRAM_BUCKETS + 1];
+        final long[] durations = new long[HISTOGRAM_BUCKETS + 1];
+
+        /**
+         * This minus {@code earlier}; the session count is this one's.
+         */
+        public Stats since(Stats earlier) {
+            Stats delta = new Stats();
+            delta.nanos = nanos - earlier.nanos;
+            delta.sessions = sessions;
+            delta.threads = threads;
+            delta.shardTicks = shardTicks - earlier.shardTicks;
+            delta.tickCpuNanos = tickCpuNanos - earlier.tickCpuNanos;
+            delta.selectorCpuNanos = selectorCpuNanos - earlier.selectorCpuNanos;
+            delta.bytesSent = bytesSent - earlier.bytesSent;
+            delta.bytesReceived = bytesReceived - earlier.bytesReceived;
+            delta.snapshotsSkipped = snapshotsSkipped - earlier.snapshotsSkipped;
+            for (int i = 0; i <= HISTOGRAM_BUCKETS; i++) {
+                delta.lateness[i] = lateness[i] - earlier.lateness[i];
+                delta.durations[i] = durations[i] - earlier.durations[i];
+            }
+            return delta;
+        }
+
+        public void print(java.io.PrintStream out) {
+            double seconds = nanos / 1e9;
+            double tickCores = tickCpuNanos / 1e9 / seconds;
+            double cores = tickCores + selectorCpuNanos / 1e9 / seconds;
+            out.printf("%d sessions on %d tick thread%s: tick CPU %.2f cores + selector %.2f cores%n",
+                    sessions, threads, threads == 1 ? "" : "s", tickCores, cores - tickCores);
+            if (sessions > 0 && cores > 0) {
+                out.printf("  %.0f sessions per core at %d Hz (%.1f us CPU per session tick)%n",
+                        sessions / cores, TICKS_PER_SECOND, cores * 1e6 / (sessions * (double) TICKS_PER_SECOND));
+            }
+            out.printf("  tick jitter (start vs schedule) ms: p50 %.2f, p99 %.2f, p99.9 %.2f, max %.2f%n",
+                    percentile(lateness, 0.5), percentile(lateness, 0.99), percentile(lateness, 0.999),
+                    percentile(lateness, 1));
+            out.printf("  shard tick ms: p50 %.2f, p99 %.2f, max %.2f (budget %.2f)%n",
+                    percentile(durations, 0.5), percentile(durations, 0.99), percentile(durations, 1),
+                    TICK_NANOS / 1e6);
+            if (lateness[HISTOGRAM_BUCKETS] > 0) {
+                out.printf("  %d shard ticks started over %d ms late: the tick threads can't keep up%n",
+                        lateness[HISTOGRAM_BUCKETS], HISTOGRAM_BUCKETS * BUCKET_NANOS / 1_000_000);
+            }
+            if (sessions > 0) {
+                out.printf("  %.0f bytes per session per second out, %.1f in; %d snapshots skipped for slow clients%n",
+                        bytesSent / seconds / sessions, bytesReceived / seconds / sessions, snapshotsSkipped);
+            }
+        }
+
+        private static double percentile(long[] histogram, double p) {
+            long total = 0;
+            for (long count : histogram) total += count;
+            if (total == 0) return 0;
+            long rank = (long) Math.ceil(total * p);
+            long seen = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                seen += histogram[i];
+                if (seen >= rank) return (i + 1) * BUCKET_NANOS / 1e6; // Upper edge of the bucket
+            }
+            return HISTOGRAM_BUCKETS * BUCKET_NANOS / 1e6;
+        }
+    }
+}
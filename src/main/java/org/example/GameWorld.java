@@ -0,0 +1,629 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Game simulation without any rendering: the ball, rings, color changers and score.
+ * Time is measured in frames of the original 60 Hz loop, so update(1f) is one
+ * frame and update(2f) advances the world by one 30 Hz tick.
+ */
+public class GameWorld {
+    // Game constants
+    public static final float GRAVITY = -0.015f;
+    public static final float JUMP_VELOCITY = 0.3f;
+    public static final float BASE_RING_SPACING = 20.0f; // Increased spacing between rings
+    public static final float VARIETY_CHANCE = 0.4f; // Share of spawns that aren't classic rings
+    public static final float FALL_Y = -12f; // The game ends when the ball drops below this
+
+    // Swept tests against the obstacle field sample the tick at most this far apart
+    private static final float MAX_SUBSTEP_DISTANCE = 0.1f;
+    private static final float MAX_SUBSTEP_DEGREES = 2f;
+    private static final int MAX_SUBSTEPS = 64;
+
+    // Game objects
+    private PlayerBall playerBall;
+    private final List<Ring> rings = new ArrayList<>();
+    private final List<ColorChanger> colorChangers = new ArrayList<>();
+    private final ObstacleField obstacles = new ObstacleField(16, 64); // Everything other than classic rings
+
+    // Removed objects are kept for reuse, so restoring a snapshot doesn't allocate
+    private final List<Ring> spareRings = new ArrayList<>();
+    private final List<ColorChanger> spareChangers = new ArrayList<>();
+
+    // Game state
+    private int score;
+    private boolean isGameOver;
+    private int session = -1; // Games played since this world was created
+    private int deathRecordedSession = -1; // A rewind out of game over can die again; log one DEATH per game
+    private int tick;
+    private float clock; // Frames simulated this game; new rings start in phase with it
+    private float cameraOffsetY = 0f;
+    private float fatalContactFrames; // How long the contact that ended the game lasted (swept only)
+    private float fatalEntryFrames; // How long the ball touched its own color in that band first
+    private float fatalContactDepth; // How far into that band the ball's path reached during the contact
+    private int changersHit; // This game, for checks; not part of rewindable state
+    private final Random random;
+
+    // Collision
+    private final SweptCollision sweep = new SweptCollision();
+    private boolean sweptCollisions = true;
+    private boolean obstacleVariety = true;
+
+    // Spawning: layouts come from the pipeline when set (checked solvable), else straight from random
+    private LayoutPipeline layoutPipeline;
+    private int entryColor; // Color the ball will have when it reaches the next spawned obstacle
+
+    private Telemetry telemetry;
+
+    // Stress scenes (see StressBenchmark): no deaths and no spawning
+    private boolean stressScene;
+    private boolean timeCollisions;
+    private long collisionNanos;
+
+    public GameWorld() {
+        this(new Random());
+    }
+
+    public GameWorld(long seed) {
+        this(new Random(seed));
+    }
+
+    private GameWorld(Random random) {
+        this.random = random;
+        reset();
+    }
+
+    public void reset() {
+        playerBall = new PlayerBall(-8, 0.5f, random.nextInt(Palette.COUNT)); // Start ball much lower to avoid initial collision
+        spareRings.addAll(rings);
+        rings.clear();
+        spareChangers.addAll(colorChangers);
+        colorChangers.clear();
+        obstacles.clear();
+        score = 0;
+        isGameOver = false;
+        fatalContactFrames = Float.MAX_VALUE;
+        fatalEntryFrames = Float.MAX_VALUE;
+        fatalContactDepth = Float.MAX_VALUE;
+        changersHit = 0;
+        stressScene = false;
+        session++;
+        tick = 0;
+        clock = 0;
+        cameraOffsetY = 0f; // Reset camera offset
+        entryColor = playerBall.getColorIndex();
+
+        spawnInitialRings();
+    }
+
+    private void spawnInitialRings() {
+        // Spawn first ring well above the player (at y=5.0f when player is at y=-8)
+        spawnRing(5.0f, false);
+        // Spawn subsequent rings with proper spacing; the opening stays classic rings
+        for (int i = 1; i < 3; i++) {
+            float lastRingY = rings.get(rings.size() - 1).getY();
+            float spacing = BASE_RING_SPACING + random.nextFloat() * 4.0f; // 12-16 units spacing
+            spawnRing(lastRingY + spacing, false);
+        }
+    }
+
+    private void spawnRing(float y) {
+        spawnRing(y, obstacleVariety);
+    }
+
+    private void spawnRing(float y, boolean variety) {
+        GameEvents.Spawn event = new GameEvents.Spawn();
+        event.begin();
+        Layout layout = layoutPipeline != null
+                ? layoutPipeline.take(entryColor, variety)
+                : Layout.roll(random, variety);
+
+        // Start where it would be had it been turning since the game began, so the
+        // ring's phase doesn't depend on which tick happened to spawn it
+        if (layout.isClassicRing()) {
+            double angle = (double) layout.getRotationSpeed() * clock % 360;
+            addRing().set(y, layout.getInnerRadius(), layout.getOuterRadius(), layout.getRotationSpeed(),
+                    angle < 0 ? angle + 360 : angle, false);
+        } else {
+            obstacles.add(layout.getDef(), y, layout.getScale(), layout.getRotationSpeed());
+            obstacles.startAt(clock);
+        }
+        if (layout.hasChanger()) {
+            addColorChanger().set(0, y + Layout.CHANGER_OFFSET, Layout.CHANGER_RADIUS, layout.getChangerColor());
+            entryColor = layout.getChangerColor();
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.obstacle = layout.getName();
+            event.y = y;
+            event.entryColor = entryColor;
+            event.changer = layout.hasChanger();
+            event.checked = layoutPipeline != null;
+            event.commit();
+        }
+    }
+
+    public void jump() {
+        if (!isGameOver) {
+            record(Telemetry.JUMP, playerBall.getY(), playerBall.getVelocityY());
+            playerBall.jump(JUMP_VELOCITY);
+        }
+    }
+
+    /**
+     * Advances the world by dt frames.
+     */
+    public void update(float dt) {
+        if (isGameOver) return;
+        tick++;
+        clock += dt;
+
+        float startY = playerBall.getY();
+        float startVelocity = playerBall.getVelocityY();
+        playerBall.step(GRAVITY, dt);
+
+        // Collisions only depend on positions relative to the ball, so the swept
+        // test can run before the camera moves
+        long collisionStart = timeCollisions ? System.nanoTime() : 0;
+        if (sweptCollisions) {
+            GameEvents.Collisions event = beginCollisions();
+            checkCollisionsSwept(startY, startVelocity, dt);
+            commitCollisions(event, true);
+        }
+        if (timeCollisions) collisionNanos += System.nanoTime() - collisionStart;
+
+        // Move camera (world) down to follow the ball
+        float peakY = peakY(startY, startVelocity, dt);
+        if (peakY > 0) {
+            playerBall.setY(playerBall.getY() - peakY);
+            cameraOffsetY += peakY; // Track camera offset for background
+            for (Ring ring : rings) {
+                ring.setY(ring.getY() - peakY);
+            }
+            for (ColorChanger changer : colorChangers) {
+                changer.setY(changer.getY() - peakY);
+            }
+            obstacles.shiftY(peakY);
+        }
+
+        // Rotate to the end of the tick, so the discrete test sees rings and ball at the same instant
+        for (Ring ring : rings) {
+            ring.update(dt);
+        }
+        obstacles.update(dt);
+
+        if (!sweptCollisions) {
+            collisionStart = timeCollisions ? System.nanoTime() : 0;
+            GameEvents.Collisions event = beginCollisions();
+            checkCollisions();
+            commitCollisions(event, false);
+            if (timeCollisions) collisionNanos += System.nanoTime() - collisionStart;
+        }
+        checkOutOfBounds();
+
+        // Remove off-screen elements and spawn new ones
+        for (int i = rings.size() - 1; i >= 0; i--) {
+            if (rings.get(i).getY() < -20) spareRings.add(rings.remove(i));
+        }
+        for (int i = colorChangers.size() - 1; i >= 0; i--) {
+            if (colorChangers.get(i).getY() < -20) spareChangers.add(colorChangers.remove(i));
+        }
+        obstacles.removeBelow(-20);
+
+        // Spawn new ring when the last one is getting close
+        float lastRingY = highestObstacleY();
+        if (!stressScene && lastRingY != Float.NEGATIVE_INFINITY && lastRingY < 15) {
+            float spacing = BASE_RING_SPACING + random.nextFloat() * 4.0f;
+            spawnRing(lastRingY + spacing);
+        }
+    }
+
+    /**
+     * y of the highest ring or field obstacle, or negative infinity if there are none.
+     */
+    private float highestObstacleY() {
+        float top = obstacles.getTopY();
+        if (!rings.isEmpty()) {
+            top = Math.max(top, rings.get(rings.size() - 1).getY());
+        }
+        return top;
+    }
+
+    /**
+     * Highest point the ball reaches during the tick, sampled at whole frames
+     * so the camera scrolls exactly as it would with one update per frame.
+     */
+    private float peakY(float startY, float startVelocity, float dt) {
+        float peak = playerBall.getY();
+        if (dt <= 1f) return peak;
+
+        float b = startVelocity + GRAVITY * 0.5f;
+        float c = GRAVITY * 0.5f;
+        float apex = -b / (2 * c);
+        if (apex > 0 && apex < dt) {
+            float before = Math.max(1f, (float) Math.floor(apex));
+            float after = Math.min(dt, (float) Math.ceil(apex));
+            peak = Math.max(peak, startY + (b + c * before) * before);
+            peak = Math.max(peak, startY + (b + c * after) * after);
+        }
+        return peak;
+    }
+
+    private static GameEvents.Collisions beginCollisions() {
+        GameEvents.Collisions event = new GameEvents.Collisions();
+        event.begin();
+        return event;
+    }
+
+    private void commitCollisions(GameEvents.Collisions event, boolean swept) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.swept = swept;
+            event.rings = rings.size();
+            event.changers = colorChangers.size();
+            event.obstacles = obstacles.getCount();
+            event.died = isGameOver;
+            event.commit();
+        }
+    }
+
+    /**
+     * Discrete overlap test at the end of the tick. Only reliable while the ball
+     * moves less than a ring's thickness per tick; kept as the reference for
+     * {@link CollisionCheck}.
+     */
+    private void checkCollisions() {
+        // Ring collision
+        for (Ring ring : rings) {
+            if (playerBall.isCollidingWithRing(ring)) {
+                int segment = ring.getSegmentAtAngle(playerBall.getX(), playerBall.getY());
+                if (segment != playerBall.getColorIndex()) {
+                    endGame(Telemetry.DEATH_RING);
+                    return;
+                } else if (!ring.isPassed()) {
+                    scoreRing(ring);
+                }
+            }
+        }
+
+        // Obstacle field collision
+        if (obstacles.collide(playerBall.getX(), playerBall.getY(), playerBall.getRadius(),
+                playerBall.getColorIndex(), 0)) {
+            endGame(Telemetry.DEATH_RING);
+            return;
+        }
+        scorePassedObstacles(playerBall.getY());
+
+        // Color changer collision
+        colorChangers.forEach(changer -> {
+            if (changer.isColliding(playerBall)) {
+                changeColor(changer);
+            }
+        });
+    }
+
+    /**
+     * Continuous test of the ball's path across the whole tick against every ring
+     * band, including the ring's rotation during the tick, and every color changer.
+     */
+    private void checkCollisionsSwept(float startY, float startVelocity, float dt) {
+        float b = startVelocity + GRAVITY * 0.5f;
+        float c = GRAVITY * 0.5f;
+        float radius = playerBall.getRadius();
+
+        // Find the first color changer the ball touches during the tick
+        ColorChanger touchedChanger = null;
+        float changeTime = Float.MAX_VALUE;
+        for (ColorChanger changer : colorChangers) {
+            float dx = playerBall.getX() - changer.getX();
+            float contact = radius + changer.getRadius();
+            if (Math.abs(dx) >= contact) continue;
+            float reach = (float) Math.sqrt(contact * contact - dx * dx);
+            float t = sweep.sweepPoint(startY - changer.getY(), b, c, dt, reach);
+            if (t >= 0 && t < changeTime) {
+                changeTime = t;
+                touchedChanger = changer;
+            }
+        }
+        int colorBefore = playerBall.getColorIndex();
+        int colorAfter = touchedChanger != null ? touchedChanger.getColorIndex() : colorBefore;
+
+        // Ring collision
+        float deathTime = Float.MAX_VALUE;
+        float deathContact = Float.MAX_VALUE;
+        float deathEntry = Float.MAX_VALUE;
+        float deathDepth = Float.MAX_VALUE;
+        for (Ring ring : rings) {
+            float a = startY - ring.getY();
+            float lo = ring.getInnerRadius() - radius;
+            float hi = ring.getOuterRadius() + radius;
+            int result = sweep.sweepRing(a, b, c, dt, lo, hi, ring.getCurrentAngle(), ring.getRotationSpeed(),
+                    colorBefore, changeTime, colorAfter);
+            if ((result & SweptCollision.PASS) != 0 && !ring.isPassed()) {
+                scoreRing(ring);
+            }
+            if ((result & SweptCollision.HIT) != 0 && sweep.getContactTime() < deathTime) {
+                deathTime = sweep.getContactTime();
+                deathContact = sweep.getHitDuration();
+                // Only known if the ball entered the band during this tick
+                deathEntry = (result & SweptCollision.PASS) != 0 ? sweep.getHitTime() - sweep.getContactTime() : Float.MAX_VALUE;
+                float contactEnd = deathContact == Float.MAX_VALUE ? dt : Math.min(dt, deathTime + deathContact);
+                deathDepth = bandDepth(a, b, c, deathTime, contactEnd, lo, hi);
+            }
+        }
+        float obstacleDeath = sweepObstacles(startY, b, c, dt, colorBefore, changeTime, colorAfter, deathTime);
+        if (obstacleDeath < deathTime) {
+            deathTime = obstacleDeath;
+            deathContact = Float.MAX_VALUE; // Sampled, so its length isn't known
+            deathEntry = Float.MAX_VALUE;
+            deathDepth = Float.MAX_VALUE;
+        }
+        // Color changer collision, unless the ball died before reaching it
+        if (touchedChanger != null && changeTime < deathTime) {
+            changeColor(touchedChanger);
+        }
+
+        if (deathTime != Float.MAX_VALUE) {
+            fatalContactFrames = deathContact;
+            fatalEntryFrames = deathEntry;
+            fatalContactDepth = deathDepth;
+            endGame(Telemetry.DEATH_RING);
+        }
+    }
+
+    /**
+     * Deepest the offset a + b*t + c*t^2 gets into the band [lo, hi] (either
+     * side of the ring's center) between t0 and t1, measured from the nearer edge.
+     */
+    private static float bandDepth(float a, float b, float c, float t0, float t1, float lo, float hi) {
+        float p0 = Math.abs(a + (b + c * t0) * t0);
+        float p1 = Math.abs(a + (b + c * t1) * t1);
+        float near = Math.min(p0, p1);
+        float far = Math.max(p0, p1);
+        float vertex = -b / (2 * c);
+        if (vertex > t0 && vertex < t1) {
+            float pv = Math.abs(a + (b + c * vertex) * vertex);
+            near = Math.min(near, pv);
+            far = Math.max(far, pv);
+        }
+        float middle = (lo + hi) / 2;
+        if (near <= middle && far >= middle) return middle - lo;
+        return far < middle ? far - lo : hi - near;
+    }
+
+    /**
+     * Tests the obstacle field at evenly spaced moments of the tick, close enough
+     * that neither the ball nor any moving part skips over the other, scoring
+     * obstacles the ball rises past on the way.
+     *
+     * @return the first moment the ball touches another color, or Float.MAX_VALUE
+     */
+    private float sweepObstacles(float startY, float b, float c, float dt,
+                                 int colorBefore, float changeTime, int colorAfter, float deathTime) {
+        if (obstacles.getCount() == 0) return Float.MAX_VALUE;
+
+        float travel = (Math.abs(b) + Math.abs(c) * dt) * dt;
+        float substeps = Math.max(travel / MAX_SUBSTEP_DISTANCE,
+                Math.max(obstacles.getMaxSpin() * dt / MAX_SUBSTEP_DEGREES,
+                        obstacles.getMaxSlide() * dt / MAX_SUBSTEP_DISTANCE));
+        int n = Math.max(1, Math.min(MAX_SUBSTEPS, (int) Math.ceil(substeps)));
+
+        for (int k = 1; k <= n; k++) {
+            float t = dt * k / n;
+            if (t > deathTime) break;
+            float y = startY + (b + c * t) * t;
+            int color = t >= changeTime ? colorAfter : colorBefore;
+            if (obstacles.collide(playerBall.getX(), y, playerBall.getRadius(), color, t)) {
+                return t;
+            }
+            scorePassedObstacles(y);
+        }
+        return Float.MAX_VALUE;
+    }
+
+    private void scorePassedObstacles(float ballY) {
+        int o;
+        while ((o = obstacles.nextPassed(ballY)) >= 0) {
+            score++;
+            record(Telemetry.RING_PASSED, obstacles.getExtent(o), obstacles.getSpin(o));
+        }
+    }
+
+    private void scoreRing(Ring ring) {
+        score++;
+        ring.setPassed(true);
+        record(Telemetry.RING_PASSED, ring.getOuterRadius(), ring.getRotationSpeed());
+    }
+
+    private void changeColor(ColorChanger changer) {
+        record(Telemetry.COLOR_CHANGE, changer.getColorIndex(), playerBall.getColorIndex());
+        playerBall.setColor(changer.getColorIndex());
+        changersHit++;
+        changer.setY(-20); // "Remove" it
+    }
+
+    private void checkOutOfBounds() {
+        if (!isGameOver && playerBall.getY() < FALL_Y) {
+            endGame(Telemetry.DEATH_FELL);
+        }
+    }
+
+    private void endGame(float cause) {
+        if (stressScene) return;
+        isGameOver = true;
+        if (deathRecordedSession == session) return;
+        deathRecordedSession = session;
+        record(Telemetry.DEATH, playerBall.getY(), cause);
+    }
+
+    private void record(byte type, float a, float b) {
+        if (telemetry != null) {
+            telemetry.record(type, session, tick, score, a, b);
+        }
+    }
+
+    /**
+     * Send gameplay events to the given log (null to stop).
+     */
+    public void setTelemetry(Telemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    /**
+     * Replaces the world with a stress scene: the given numbers of rings and color
+     * changers scattered over the visible area. Collisions are still tested every
+     * tick, but the ball can't die and no new rings spawn until the next reset().
+     */
+    public void populateStress(int ringCount, int changerCount) {
+        reset();
+        stressScene = true;
+        resizeEntities(0, 0);
+        obstacles.clear();
+        for (int i = 0; i < ringCount; i++) {
+            float outerRadius = 3.5f + random.nextFloat() * 3.0f;
+            float innerRadius = outerRadius - (0.8f + random.nextFloat() * 0.7f);
+            float rotationSpeed = 1.5f * (4.5f / outerRadius) * (random.nextBoolean() ? 1 : -1);
+            float y = -15 + random.nextFloat() * 30;
+            addRing().set(y, innerRadius, outerRadius, rotationSpeed, random.nextFloat() * 360, false);
+        }
+        for (int i = 0; i < changerCount; i++) {
+            float x = -9 + random.nextFloat() * 18;
+            float y = -15 + random.nextFloat() * 30;
+            addColorChanger().set(x, y, 0.35f, random.nextInt(Palette.COUNT));
+        }
+    }
+
+    /**
+     * Accumulate time spent in collision tests (see {@link #takeCollisionNanos()}).
+     */
+    public void setTimeCollisions(boolean timeCollisions) {
+        this.timeCollisions = timeCollisions;
+    }
+
+    /**
+     * Collision time accumulated since the last call.
+     */
+    public long takeCollisionNanos() {
+        long nanos = collisionNanos;
+        collisionNanos = 0;
+        return nanos;
+    }
+
+    /**
+     * Appends a ring, reusing a removed one if possible. The caller sets its state.
+     */
+    Ring addRing() {
+        Ring ring = spareRings.isEmpty()
+                ? new Ring(0, 0, 0, 0)
+                : spareRings.remove(spareRings.size() - 1);
+        rings.add(ring);
+        return ring;
+    }
+
+    /**
+     * Appends a color changer, reusing a removed one if possible. The caller sets its state.
+     */
+    ColorChanger addColorChanger() {
+        ColorChanger changer = spareChangers.isEmpty()
+                ? new ColorChanger(0, 0, 0, 0)
+                : spareChangers.remove(spareChangers.size() - 1);
+        colorChangers.add(changer);
+        return changer;
+    }
+
+    /**
+     * Grows or shrinks the ring and changer lists to the given sizes, moving
+     * objects to and from the spares. Used when restoring a snapshot.
+     */
+    void resizeEntities(int ringCount, int changerCount) {
+        while (rings.size() > ringCount) spareRings.add(rings.remove(rings.size() - 1));
+        while (rings.size() < ringCount) addRing();
+        while (colorChangers.size() > changerCount) spareChangers.add(colorChangers.remove(colorChangers.size() - 1));
+        while (colorChangers.size() < changerCount) addColorChanger();
+    }
+
+    /**
+     * Makes sure restoring up to this many entities never has to allocate.
+     */
+    void reserveEntities(int ringCount, int changerCount) {
+        while (rings.size() + spareRings.size() < ringCount) spareRings.add(new Ring(0, 0, 0, 0));
+        while (colorChangers.size() + spareChangers.size() < changerCount) spareChangers.add(new ColorChanger(0, 0, 0, 0));
+    }
+
+    void restoreState(int score, int session, int tick, float clock, boolean isGameOver, float cameraOffsetY,
+                      int entryColor) {
+        this.score = score;
+        this.entryColor = entryColor;
+        this.session = session;
+        this.tick = tick;
+        this.clock = clock;
+        this.isGameOver = isGameOver;
+        this.cameraOffsetY = cameraOffsetY;
+    }
+
+    /**
+     * Switches between swept (default) and discrete end-of-tick collision tests.
+     */
+    public void setSweptCollisions(boolean sweptCollisions) {
+        this.sweptCollisions = sweptCollisions;
+    }
+
+    /**
+     * Take layouts from the given pipeline, which only hands out layouts its
+     * solver could clear (null to roll them directly, unchecked).
+     */
+    public void setLayoutPipeline(LayoutPipeline layoutPipeline) {
+        this.layoutPipeline = layoutPipeline;
+    }
+
+    /**
+     * Mixes obstacle types from {@link ObstacleCatalog} in with the classic rings
+     * (default). When off, only classic rings spawn.
+     */
+    public void setObstacleVariety(boolean obstacleVariety) {
+        this.obstacleVariety = obstacleVariety;
+    }
+
+    // Getters
+    public PlayerBall getPlayerBall() { return playerBall; }
+    public List<Ring> getRings() { return rings; }
+    public List<ColorChanger> getColorChangers() { return colorChangers; }
+    public ObstacleField getObstacles() { return obstacles; }
+    public int getScore() { return score; }
+    public boolean isGameOver() { return isGameOver; }
+    public int getSession() { return session; }
+    public int getTick() { return tick; }
+    float getClock() { return clock; }
+    public float getCameraOffsetY() { return cameraOffsetY; }
+
+    /**
+     * How long, in frames, the ball touched the wrong color in the contact that
+     * ended the game, or Float.MAX_VALUE if unknown (see
+     * {@link SweptCollision#getHitDuration()}). Swept collision only.
+     */
+    float getFatalContactFrames() { return fatalContactFrames; }
+
+    /**
+     * How long, in frames, the ball had been in the band of the ring that
+     * ended the game on its own color before another color reached it, or
+     * Float.MAX_VALUE if it didn't enter that band on its own color in the
+     * final tick. The ring was scored on entry.
+     */
+    float getFatalEntryFrames() { return fatalEntryFrames; }
+
+    /**
+     * How far, in units, the ball's path reached into the band of the ring that
+     * ended the game during that contact, or Float.MAX_VALUE if unknown. Swept
+     * collision only.
+     */
+    float getFatalContactDepth() { return fatalContactDepth; }
+
+    /**
+     * Color changers the ball has touched since the last reset.
+     */
+    int getChangersHit() { return changersHit; }
+    public int getEntryColor() { return entryColor; }
+}
@@ -0,0 +1,230 @@
+package org.example;
+
+import com.jogamp.opengl.GL2;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * The starfield drawn entirely by a vertex shader.
+ *
+ * Each star's fixed attributes are uploaded to a vertex buffer once. Every
+ * frame the shader works out where each star has fallen to from a time
+ * uniform and the camera offset, wraps it back to the top with a fresh X,
+ * and twinkles it, so the CPU sets a few uniforms and issues one draw call
+ * whatever the star count. Stars are spread over {@link #LAYERS} depth
+ * layers; nearer layers fall faster, shine brighter, draw larger and move
+ * further with the camera.
+ *
+ * Needs GLSL 1.20. {@link #init} reports whether it's usable, so the caller
+ * can fall back to {@link BackgroundStars}.
+ */
+public class GpuStarfield {
+    public static final int LAYERS = 3;
+    /**
+     * The shader's time wraps after this many frames (about 4.9 hours at 60 Hz),
+     * so it stays small enough for the shader's float products to keep their
+     * precision. The stars reshuffle once when it does.
+     */
+    public static final long TIME_PERIOD = 1 << 20;
+    private static final float MIN_SPEED = 0.01f; // Fall speed range of the nearest layer, as BackgroundStars
+    private static final float MAX_SPEED = 0.05f;
+    private static final float NEAR_PARALLAX = 0.15f; // Share of the camera's movement the nearest layer follows
+    private static final float POINT_SIZE = 2.0f; // Pixels, as BackgroundStars.draw
+    private static final float STAR_RADIUS = 0.08f; // World units when drawn as circles
+
+    // Vertex layout: two vec4 attributes per star
+    private static final int MOTION = 0; // x, y (fractions of the field), speed, parallax
+    private static final int LOOK = 1; // brightness, size, twinkle phase, twinkle rate
+    private static final int FLOATS_PER_STAR = 8;
+
+    private static final String VERTEX_SHADER = String.join("\n",
+            "#version 120",
+            "attribute vec4 motion;",
+            "attribute vec4 look;",
+            "uniform float time;", // Frames
+            "uniform float camera;",
+            "uniform vec4 bounds;", // minX, maxX, minY, maxY
+            "uniform float pointSize;",
+            "varying float brightness;",
+            "",
+            "float hash(float n) {",
+            "    return fract(sin(n * 12.9898 + 78.233) * 43758.5453);",
+            "}",
+            "",
+            "void main() {",
+            "    vec2 size = vec2(bounds.y - bounds.x, bounds.w - bounds.z);",
+            "    // Distance fallen in field heights; each whole one is a wrap to the top",
+            "    float fallen = motion.y - (motion.z * time + motion.w * camera) / size.y;",
+            "    float wraps = floor(fallen);",
+            "    float x = fract(motion.x + hash(wraps + motion.x * 1000.0));",
+            "    vec2 position = vec2(bounds.x, bounds.z) + vec2(x, fallen - wraps) * size;",
+            "    gl_Position = gl_ModelViewProjectionMatrix * vec4(position, 0.0, 1.0);",
+            "    gl_PointSize = pointSize * look.y;",
+            "    brightness = look.x * (0.85 + 0.15 * sin(time * look.w + look.z));",
+            "}");
+
+    private static final String FRAGMENT_SHADER = String.join("\n",
+            "#version 120",
+            "uniform bool circles;",
+            "varying float brightness;",
+            "",
+            "void main() {",
+            "    vec2 offset = gl_PointCoord - vec2(0.5);",
+            "    if (circles && dot(offset, offset) > 0.25) discard;",
+            "    gl_FragColor = vec4(vec3(brightness), 1.0);",
+            "}");
+
+    private final int starCount;
+    private final FloatBuffer attributes;
+
+    private int program;
+    private int buffer;
+    private int timeLocation, cameraLocation, boundsLocation, pointSizeLocation, circlesLocation;
+
+    public GpuStarfield(int starCount) {
+        this.starCount = starCount;
+        this.attributes = ByteBuffer.allocateDirect(starCount * FLOATS_PER_STAR * Float.BYTES)
+                .order(ByteOrder.nativeOrder()).asFloatBuffer();
+
+        Random random = new Random();
+        for (int i = 0; i < starCount; i++) {
+            // Far layers hold more stars, as in a real sky
+            float depth = random.nextFloat() * random.nextFloat();
+            int layer = Math.min(LAYERS - 1, (int) (depth * LAYERS));
+            float nearness = (layer + 1) / (float) LAYERS;
+
+            float speed = (MIN_SPEED + random.nextFloat() * (MAX_SPEED - MIN_SPEED)) * nearness;
+            attributes.put(random.nextFloat()).put(random.nextFloat()).put(speed).put(NEAR_PARALLAX * nearness);
+
+            float brightness = (0.5f + random.nextFloat() * 0.5f) * (0.6f + 0.4f * nearness);
+            float size = 0.5f + 0.5f * nearness;
+            float phase = random.nextFloat() * 2 * (float) Math.PI;
+            float rate = 0.02f + random.nextFloat() * 0.08f; // Radians per frame
+            attributes.put(brightness).put(size).put(phase).put(rate);
+        }
+        attributes.flip();
+    }
+
+    /**
+     * Compiles the shaders and uploads the stars.
+     *
+     * @return false, leaving nothing allocated, if shaders or vertex buffers
+     *         aren't available
+     */
+    public boolean init(GL2 gl) {
+        if (!gl.isFunctionAvailable("glCreateShader") || !gl.isFunctionAvailable("glBindBuffer")) {
+            return false;
+        }
+        int vertexShader = compile(gl, GL2.GL_VERTEX_SHADER, VERTEX_SHADER);
+        int fragmentShader = compile(gl, GL2.GL_FRAGMENT_SHADER, FRAGMENT_SHADER);
+        if (vertexShader == 0 || fragmentShader == 0) {
+            gl.glDeleteShader(vertexShader);
+            gl.glDeleteShader(fragmentShader);
+            return false;
+        }
+
+        program = gl.glCreateProgram();
+        gl.glAttachShader(program, vertexShader);
+        gl.glAttachShader(program, fragmentShader);
+        gl.glBindAttribLocation(program, MOTION, "motion");
+        gl.glBindAttribLocation(program, LOOK, "look");
+        gl.glLinkProgram(program);
+        // The program keeps them alive while it's attached
+        gl.glDeleteShader(vertexShader);
+        gl.glDeleteShader(fragmentShader);
+
+        int[] status = new int[1];
+        gl.glGetProgramiv(program, GL2.GL_LINK_STATUS, status, 0);
+        if (status[0] == 0) {
+            gl.glGetProgramiv(program, GL2.GL_INFO_LOG_LENGTH, status, 0);
+            byte[] log = new byte[Math.max(1, status[0])];
+            gl.glGetProgramInfoLog(program, log.length, status, 0, log, 0);
+            System.err.println("Starfield shader link failed: " + new String(log, 0, status[0], StandardCharsets.UTF_8));
+            gl.glDeleteProgram(program);
+            program = 0;
+            return false;
+        }
+        timeLocation = gl.glGetUniformLocation(program, "time");
+        cameraLocation = gl.glGetUniformLocation(program, "camera");
+        boundsLocation = gl.glGetUniformLocation(program, "bounds");
+        pointSizeLocation = gl.glGetUniformLocation(program, "pointSize");
+        circlesLocation = gl.glGetUniformLocation(program, "circles");
+
+        int[] buffers = new int[1];
+        gl.glGenBuffers(1, buffers, 0);
+        buffer = buffers[0];
+        gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, buffer);
+        gl.glBufferData(GL2.GL_ARRAY_BUFFER, (long) attributes.limit() * Float.BYTES, attributes, GL2.GL_STATIC_DRAW);
+        gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, 0);
+        return true;
+    }
+
+    /**
+     * @return the shader, or 0 (with the log printed) if it didn't compile
+     */
+    private static int compile(GL2 gl, int type, String source) {
+        int shader = gl.glCreateShader(type);
+        gl.glShaderSource(shader, 1, new String[] {source}, null, 0);
+        gl.glCompileShader(shader);
+        int[] status = new int[1];
+        gl.glGetShaderiv(shader, GL2.GL_COMPILE_STATUS, status, 0);
+        if (status[0] != 0) return shader;
+
+        gl.glGetShaderiv(shader, GL2.GL_INFO_LOG_LENGTH, status, 0);
+        byte[] log = new byte[Math.max(1, status[0])];
+        gl.glGetShaderInfoLog(shader, log.length, status, 0, log, 0);
+        System.err.println("Starfield shader compile failed: " + new String(log, 0, status[0], StandardCharsets.UTF_8));
+        gl.glDeleteShader(shader);
+        return 0;
+    }
+
+    /**
+     * Draws every star for the given moment.
+     *
+     * @param frames frames the stars have been falling
+     * @param cameraOffsetY how far the camera has climbed (see {@link GameWorld#getCameraOffsetY()})
+     */
+    public void draw(GL2 gl, long frames, float cameraOffsetY, float minX, float maxX, float minY, float maxY,
+                     LevelOfDetail lod) {
+        boolean circles = lod.getQuality().isStarsAsCircles();
+        gl.glUseProgram(program);
+        gl.glUniform1f(timeLocation, (float) (frames % TIME_PERIOD));
+        gl.glUniform1f(cameraLocation, cameraOffsetY);
+        gl.glUniform4f(boundsLocation, minX, maxX, minY, maxY);
+        gl.glUniform1f(pointSizeLocation, circles ? 2 * STAR_RADIUS * lod.getPixelsPerUnit() : POINT_SIZE);
+        gl.glUniform1i(circlesLocation, circles ? 1 : 0);
+        gl.glEnable(GL2.GL_VERTEX_PROGRAM_POINT_SIZE);
+        gl.glEnable(GL2.GL_POINT_SPRITE); // For gl_PointCoord
+
+        int stride = FLOATS_PER_STAR * Float.BYTES;
+        gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, buffer);
+        gl.glEnableVertexAttribArray(MOTION);
+        gl.glEnableVertexAttribArray(LOOK);
+        gl.glVertexAttribPointer(MOTION, 4, GL2.GL_FLOAT, false, stride, 0);
+        gl.glVertexAttribPointer(LOOK, 4, GL2.GL_FLOAT, false, stride, 4 * Float.BYTES);
+        gl.glDrawArrays(GL2.GL_POINTS, 0, starCount);
+        gl.glDisableVertexAttribArray(MOTION);
+        gl.glDisableVertexAttribArray(LOOK);
+        gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, 0);
+
+        gl.glDisable(GL2.GL_POINT_SPRITE);
+        gl.glDisable(GL2.GL_VERTEX_PROGRAM_POINT_SIZE);
+        gl.glUseProgram(0);
+    }
+
+    public void dispose(GL2 gl) {
+        if (program != 0) {
+            gl.glDeleteProgram(program);
+            gl.glDeleteBuffers(1, new int[] {buffer}, 0);
+            program = 0;
+        }
+    }
+
+    public int getStarCount() {
+        return starCount;
+    }
+}
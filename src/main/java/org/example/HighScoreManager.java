@@ -29,12 +29,23 @@ public class HighScoreManager {
      * Returns true if high score was updated.
      */
     public boolean updateHighScore(int newScore) {
+        GameEvents.HighScoreUpdate event = new GameEvents.HighScoreUpdate();
+        event.begin();
+        int previous = highScore;
+        boolean saved = false;
         if (newScore > highScore) {
             highScore = newScore;
             prefs.putInt(HIGH_SCORE_KEY, highScore);
-            return true;
+            saved = true;
         }
-        return false;
+        event.end();
+        if (event.shouldCommit()) {
+            event.score = newScore;
+            event.previous = previous;
+            event.saved = saved;
+            event.commit();
+        }
+        return saved;
     }
 
     /**
@@ -0,0 +1,102 @@
+package org.example;
+
+import com.jogamp.opengl.GLCapabilities;
+import com.jogamp.opengl.GLProfile;
+import com.jogamp.opengl.awt.GLCanvas;
+import com.jogamp.opengl.util.FPSAnimator;
+
+import java.awt.EventQueue;
+import java.awt.Frame;
+import java.awt.event.KeyEvent;
+import java.lang.management.ManagementFactory;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Measures what on-demand rendering saves. Opens the game, lets the ball fall
+ * to the game over screen, and records process CPU time and frames drawn with
+ * the animator always running and with {@link RenderScheduler}; then the same
+ * while paused in the background. Also reports how long the first frame took
+ * after a key press or refocus woke the animator.
+ *
+ * Needs a display. Run with {@code --idle-bench [seconds per measurement]} (default 5).
+ */
+public class IdleBenchmark {
+    private static final long SETTLE_MILLIS = 500;
+
+    private final Game game;
+    private final RenderScheduler scheduler;
+    private final com.sun.management.OperatingSystemMXBean os =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    private IdleBenchmark(Game game, RenderScheduler scheduler) {
+        this.game = game;
+        this.scheduler = scheduler;
+    }
+
+    public static void run(int seconds) throws InterruptedException {
+        GLCanvas canvas = new GLCanvas(new GLCapabilities(GLProfile.getDefault()));
+        Frame window = new Frame("Color Switch Clone - idle");
+        window.setSize(400, 800);
+        window.add(canvas);
+        window.setVisible(true);
+
+        Game game = new Game(canvas);
+        FPSAnimator animator = new FPSAnimator(canvas, 60);
+        RenderScheduler scheduler = new RenderScheduler(animator);
+        game.setRenderScheduler(scheduler);
+        canvas.addGLEventListener(game);
+        animator.start();
+
+        IdleBenchmark benchmark = new IdleBenchmark(game, scheduler);
+        if (!waitFor(game::isGameOver, 10_000)) {
+            System.out.println("The ball never fell out; is the window receiving frames?");
+            System.exit(1);
+        }
+        System.out.printf("%-36s %10s %12s%n", "state", "frames/s", "CPU % (1 core)");
+
+        scheduler.setEnabled(false);
+        benchmark.measure("game over, always rendering", seconds);
+        scheduler.setEnabled(true);
+        benchmark.measure("game over, on demand", seconds);
+
+        // Space restarts the game; the key handler wakes the animator
+        EventQueue.invokeLater(() -> canvas.dispatchEvent(new KeyEvent(canvas, KeyEvent.KEY_PRESSED,
+                System.currentTimeMillis(), 0, KeyEvent.VK_SPACE, ' ')));
+        waitFor(() -> !game.isGameOver(), 1000);
+        System.out.printf("Key press to first frame: %.2f ms%n", scheduler.getLastWakeLatencyMillis());
+
+        // Same as the window losing focus or being minimized
+        game.setWindowActive(false);
+        scheduler.setEnabled(false);
+        benchmark.measure("paused in background, always rendering", seconds);
+        scheduler.setEnabled(true);
+        benchmark.measure("paused in background, on demand", seconds);
+
+        game.setWindowActive(true);
+        Thread.sleep(SETTLE_MILLIS);
+        System.out.printf("Refocus to first frame: %.2f ms (%d sleeps in total)%n",
+                scheduler.getLastWakeLatencyMillis(), scheduler.getSleeps());
+        System.exit(0);
+    }
+
+    private void measure(String state, int seconds) throws InterruptedException {
+        Thread.sleep(SETTLE_MILLIS);
+        long cpuStart = os.getProcessCpuTime();
+        long framesStart = game.getFramesDrawn();
+        long start = System.nanoTime();
+        Thread.sleep(seconds * 1000L);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        double cpu = (os.getProcessCpuTime() - cpuStart) / 1e9;
+        System.out.printf("%-36s %10.1f %12.1f%n", state, (game.getFramesDrawn() - framesStart) / elapsed,
+                100 * cpu / elapsed);
+    }
+
+    private static boolean waitFor(BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) return false;
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
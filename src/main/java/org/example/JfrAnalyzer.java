@@ -0,0 +1,270 @@
+package org.example;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Summarizes a Flight Recorder file made with {@link GameEvents}: tick and
+ * render time percentiles, then the slowest ticks with every GC, JIT,
+ * safepoint, I/O, lock and game event that overlapped them in time.
+ *
+ * Reads the file twice, once to find the slowest ticks and once to match
+ * other events against them. Tick and render times go into fixed-size
+ * histograms, as in {@link TelemetryAnalyzer}, and only the slowest ticks
+ * are kept as events, so memory use doesn't grow with the recording.
+ *
+ * Run with {@code --jfr-analyze <file> [ticks]} (default 10).
+ */
+public class JfrAnalyzer {
+    private static final double FRAME_BUDGET_MS = 1000.0 / 60;
+    private static final int MAX_OVERLAPS_SHOWN = 12;
+    private static final double BUCKET_MS = 0.001; // Most ticks take a few microseconds
+    private static final int BUCKETS = 100_000; // Up to 100 ms; anything longer lands in the last bucket
+
+    // Events reported when they overlap a slow tick, and how they are labelled
+    private static final String[][] CAUSES = {
+            {"jdk.GarbageCollection", "GC"},
+            {"jdk.GCPhasePause", "GC pause"},
+            {"jdk.SafepointBegin", "safepoint"},
+            {"jdk.Compilation", "JIT"},
+            {"jdk.Deoptimization", "deopt"},
+            {"jdk.FileRead", "I/O read"},
+            {"jdk.FileWrite", "I/O write"},
+            {"jdk.FileForce", "I/O force"},
+            {"jdk.JavaMonitorEnter", "lock"},
+            {"jdk.ThreadPark", "park"},
+            {"org.example.Collisions", "collisions"},
+            {"org.example.Spawn", "spawn"},
+            {"org.example.HighScoreUpdate", "high score"},
+    };
+
+    /**
+     * One of the slowest ticks and what overlapped it.
+     */
+    private static final class SlowTick {
+        final Instant start, end;
+        final double millis;
+        final int tick, session, score;
+        final List<Overlap> overlaps = new ArrayList<>();
+
+        SlowTick(RecordedEvent event) {
+            start = event.getStartTime();
+            end = event.getEndTime();
+            millis = millis(event.getDuration());
+            tick = event.getInt("tick");
+            session = event.getInt("session");
+            score = event.getInt("score");
+        }
+
+        boolean overlaps(RecordedEvent event) {
+            if (event.getDuration().isZero()) {
+                // Instant events (a deoptimization, say) count if they happened during the tick
+                return !event.getStartTime().isBefore(start) && !event.getStartTime().isAfter(end);
+            }
+            return event.getStartTime().isBefore(end) && event.getEndTime().isAfter(start);
+        }
+    }
+
+    private static final class Overlap {
+        final double millis;
+        final String text;
+
+        Overlap(double millis, String text) {
+            this.millis = millis;
+            this.text = text;
+        }
+    }
+
+    public static void run(Path file, int count) throws IOException {
+        // Pass 1: tick and render times, keeping the slowest ticks in a min-heap
+        PriorityQueue<SlowTick> slowest = new PriorityQueue<>((a, b) -> Double.compare(a.millis, b.millis));
+        long[] ticks = new long[BUCKETS + 1];
+        long[] renders = new long[BUCKETS + 1];
+        long tickCount = 0, renderCount = 0, overBudget = 0;
+        double maxTick = 0, maxRender = 0;
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                String type = event.getEventType().getName();
+                if (type.equals("org.example.Tick")) {
+                    double millis = millis(event.getDuration());
+                    ticks[bucket(millis)]++;
+                    tickCount++;
+                    maxTick = Math.max(maxTick, millis);
+                    if (millis > FRAME_BUDGET_MS) overBudget++;
+                    if (slowest.size() < count) {
+                        slowest.add(new SlowTick(event));
+                    } else if (millis > slowest.peek().millis) {
+                        slowest.poll();
+                        slowest.add(new SlowTick(event));
+                    }
+                } else if (type.equals("org.example.Render")) {
+                    double millis = millis(event.getDuration());
+                    renders[bucket(millis)]++;
+                    renderCount++;
+                    maxRender = Math.max(maxRender, millis);
+                }
+            }
+        }
+        if (tickCount == 0) {
+            System.out.println("No org.example.Tick events in " + file + " (was it recorded with colorswitch.jfc?)");
+            return;
+        }
+
+        List<SlowTick> slow = new ArrayList<>(slowest);
+        slow.sort((a, b) -> Double.compare(b.millis, a.millis));
+
+        // Pass 2: everything that overlapped a slow tick, plus totals for the whole recording
+        double gcPauseMillis = 0;
+        int compilations = 0, deoptimizations = 0, ioEvents = 0;
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                String type = event.getEventType().getName();
+                String label = label(type);
+                if (label == null) continue;
+
+                switch (type) {
+                    case "jdk.GarbageCollection": gcPauseMillis += millis(event.getDuration("sumOfPauses")); break;
+                    case "jdk.Compilation": compilations++; break;
+                    case "jdk.Deoptimization": deoptimizations++; break;
+                    case "jdk.FileRead": case "jdk.FileWrite": case "jdk.FileForce": ioEvents++; break;
+                    default: break;
+                }
+
+                for (SlowTick tick : slow) {
+                    if (tick.overlaps(event)) {
+                        tick.overlaps.add(new Overlap(millis(event.getDuration()), describe(label, event)));
+                    }
+                }
+            }
+        }
+
+        System.out.printf("%d ticks: p50 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms; %d over the %.1f ms frame budget%n",
+                tickCount, percentile(ticks, tickCount, 0.5), percentile(ticks, tickCount, 0.99),
+                percentile(ticks, tickCount, 0.999), maxTick, overBudget, FRAME_BUDGET_MS);
+        if (renderCount > 0) {
+            System.out.printf("%d renders: p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                    renderCount, percentile(renders, renderCount, 0.5), percentile(renders, renderCount, 0.99),
+                    maxRender);
+        }
+        System.out.printf("Whole recording: GC pauses %.1f ms, %d compilations over 1 ms, %d deoptimizations, %d file I/O events%n",
+                gcPauseMillis, compilations, deoptimizations, ioEvents);
+
+        System.out.printf("%nSlowest %d ticks:%n", slow.size());
+        for (SlowTick tick : slow) {
+            System.out.printf("%8.3f ms  session %d tick %d score %d  at %s%n",
+                    tick.millis, tick.session, tick.tick, tick.score, tick.start);
+            if (tick.overlaps.isEmpty()) {
+                System.out.println("            nothing recorded overlapping (game code itself)");
+            }
+            // Longest first
+            tick.overlaps.sort((a, b) -> Double.compare(b.millis, a.millis));
+            for (int i = 0; i < Math.min(MAX_OVERLAPS_SHOWN, tick.overlaps.size()); i++) {
+                System.out.println("            " + tick.overlaps.get(i).text);
+            }
+            if (tick.overlaps.size() > MAX_OVERLAPS_SHOWN) {
+                System.out.printf("            ... and %d more%n", tick.overlaps.size() - MAX_OVERLAPS_SHOWN);
+            }
+        }
+    }
+
+    public static void run(String[] args) throws IOException {
+        run(Paths.get(args[0]), args.length > 1 ? Integer.parseInt(args[1]) : 10);
+    }
+
+    private static String label(String type) {
+        for (String[] cause : CAUSES) {
+            if (cause[0].equals(type)) return cause[1];
+        }
+        return null;
+    }
+
+    /**
+     * One line for an overlapping event: label, duration and the fields that say what it was.
+     */
+    private static String describe(String label, RecordedEvent event) {
+        StringBuilder line = new StringBuilder(String.format("%-11s %7.3f ms", label, millis(event.getDuration())));
+        switch (event.getEventType().getName()) {
+            case "jdk.GarbageCollection":
+                line.append("  ").append(event.getString("name")).append(" (").append(event.getString("cause")).append(')');
+                break;
+            case "jdk.GCPhasePause":
+                line.append("  ").append(event.getString("name"));
+                break;
+            case "jdk.Compilation":
+                line.append("  ").append(method(event.getValue("method")))
+                        .append(" tier ").append(event.getShort("compileLevel"));
+                break;
+            case "jdk.Deoptimization":
+                line.append("  ").append(method(event.getValue("method")))
+                        .append(" (").append(event.getString("reason")).append(')');
+                break;
+            case "jdk.FileRead":
+            case "jdk.FileWrite":
+            case "jdk.FileForce":
+                line.append("  ").append(event.getString("path"));
+                break;
+            case "jdk.JavaMonitorEnter":
+                line.append("  ").append(className(event.getValue("monitorClass")));
+                break;
+            case "jdk.ThreadPark":
+                line.append("  ").append(className(event.getValue("parkedClass")));
+                break;
+            case "org.example.Spawn":
+                line.append("  ").append(event.getString("obstacle"))
+                        .append(event.getBoolean("checked") ? "" : " (unchecked)");
+                break;
+            case "org.example.HighScoreUpdate":
+                line.append(event.getBoolean("saved") ? "  saved " + event.getInt("score") : "  not a new high score");
+                break;
+            default:
+                break;
+        }
+        if (event.getThread() != null) {
+            String thread = event.getThread().getJavaName();
+            line.append("  [").append(thread != null ? thread : event.getThread().getOSName()).append(']');
+        }
+        return line.toString();
+    }
+
+    private static String method(RecordedMethod method) {
+        return method == null ? "?" : method.getType().getName() + "." + method.getName();
+    }
+
+    private static String className(RecordedClass recordedClass) {
+        return recordedClass == null ? "?" : recordedClass.getName();
+    }
+
+    private static int bucket(double millis) {
+        return (int) Math.min(BUCKETS, millis / BUCKET_MS);
+    }
+
+    /**
+     * Upper edge, in milliseconds, of the bucket holding the given fraction of samples.
+     */
+    private static double percentile(long[] histogram, long total, double fraction) {
+        long target = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= target) return (i + 1) * BUCKET_MS;
+        }
+        return histogram.length * BUCKET_MS;
+    }
+
+    private static double millis(Duration duration) {
+        return duration == null ? 0 : duration.toNanos() / 1e6;
+    }
+}
@@ -0,0 +1,65 @@
+package org.example;
+
+import com.jogamp.opengl.GL2;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link CaptureGl} on a JOGL context. One instance is re-pointed at the
+ * current GL every frame, so capturing allocates nothing.
+ */
+final class JoglCaptureGl implements CaptureGl {
+    private GL2 gl;
+
+    JoglCaptureGl wrap(GL2 gl) {
+        this.gl = gl;
+        return this;
+    }
+
+    @Override
+    public boolean hasPixelBuffers() {
+        return gl.isFunctionAvailable("glMapBuffer") && gl.isFunctionAvailable("glBindBuffer");
+    }
+
+    @Override
+    public void genBuffers(int[] ids) {
+        gl.glGenBuffers(ids.length, ids, 0);
+    }
+
+    @Override
+    public void deleteBuffers(int[] ids) {
+        gl.glDeleteBuffers(ids.length, ids, 0);
+    }
+
+    @Override
+    public void bindPackBuffer(int id) {
+        gl.glBindBuffer(GL2.GL_PIXEL_PACK_BUFFER, id);
+    }
+
+    @Override
+    public void allocatePackBuffer(int bytes) {
+        gl.glBufferData(GL2.GL_PIXEL_PACK_BUFFER, bytes, null, GL2.GL_STREAM_READ);
+    }
+
+    @Override
+    public void readPixelsToPackBuffer(int width, int height) {
+        gl.glPixelStorei(GL2.GL_PACK_ALIGNMENT, 4);
+        gl.glReadPixels(0, 0, width, height, GL2.GL_RGBA, GL2.GL_UNSIGNED_BYTE, 0);
+    }
+
+    @Override
+    public void readPixels(int width, int height, ByteBuffer target) {
+        gl.glPixelStorei(GL2.GL_PACK_ALIGNMENT, 4);
+        gl.glReadPixels(0, 0, width, height, GL2.GL_RGBA, GL2.GL_UNSIGNED_BYTE, target);
+    }
+
+    @Override
+    public ByteBuffer mapPackBuffer() {
+        return gl.glMapBuffer(GL2.GL_PIXEL_PACK_BUFFER, GL2.GL_READ_ONLY);
+    }
+
+    @Override
+    public void unmapPackBuffer() {
+        gl.glUnmapBuffer(GL2.GL_PIXEL_PACK_BUFFER);
+    }
+}
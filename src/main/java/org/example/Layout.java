@@ -0,0 +1,117 @@
+package org.example;
+
+import java.util.Random;
+
+/**
+ * The rolled parameters of one spawn: an obstacle (a classic ring or a catalog
+ * type) and the optional color changer above it. Rolling is separate from
+ * placing so a layout can be checked by {@link LayoutSolver} before it is used.
+ */
+public final class Layout {
+    /** Color changers sit this far above their obstacle. */
+    public static final float CHANGER_OFFSET = GameWorld.BASE_RING_SPACING / 2;
+    public static final float CHANGER_RADIUS = 0.35f;
+
+    private final ObstacleDef def; // null for a classic ring
+    private final float innerRadius, outerRadius; // Classic rings only
+    private final float scale;
+    private final float rotationSpeed;
+    private final int changerColor; // -1 if there is no changer
+    private final ObstacleDef solverDef; // The obstacle as a definition, classic rings included
+
+    private Layout(ObstacleDef def, float innerRadius, float outerRadius, float scale,
+                   float rotationSpeed, int changerColor) {
+        this.def = def;
+        this.innerRadius = innerRadius;
+        this.outerRadius = outerRadius;
+        this.scale = scale;
+        this.rotationSpeed = rotationSpeed;
+        this.changerColor = changerColor;
+        this.solverDef = def != null ? def : new ObstacleDef("classic-ring")
+                .arc(0, 0, innerRadius, outerRadius, 0, 360, 1, 0, 1, 2, 3);
+    }
+
+    /**
+     * Rolls a layout the way the game always has: a classic ring, or with
+     * {@code variety} sometimes a catalog obstacle, then maybe a changer.
+     */
+    public static Layout roll(Random random, boolean variety) {
+        Layout layout = variety && random.nextFloat() < GameWorld.VARIETY_CHANCE
+                ? rollObstacle(random)
+                : classicRing(random);
+        // Spawn a color changer occasionally between rings
+        if (random.nextFloat() > 0.6f) {
+            return layout.withChanger(random.nextInt(Palette.COUNT));
+        }
+        return layout;
+    }
+
+    /**
+     * A classic ring of random size and direction, without a changer. It has
+     * every color, so any ball can pass it.
+     */
+    static Layout classicRing(Random random) {
+        // Varied ring sizes - outer radius between 3.5 and 6.5
+        float outerRadius = 3.5f + random.nextFloat() * 3.0f;
+        float thickness = 0.8f + random.nextFloat() * 0.7f; // Thickness between 0.8 and 1.5
+        float innerRadius = outerRadius - thickness;
+
+        // Rotation speed inversely proportional to size
+        // Larger rings rotate slower, smaller rings rotate faster
+        float baseSpeed = 1.5f;
+        float rotationSpeed = baseSpeed * (4.5f / outerRadius); // Speed factor based on radius
+        rotationSpeed *= (random.nextBoolean() ? 1 : -1); // Random direction
+
+        return new Layout(null, innerRadius, outerRadius, 1f, rotationSpeed, -1);
+    }
+
+    private static Layout rollObstacle(Random random) {
+        ObstacleDef def = ObstacleCatalog.VARIETY[random.nextInt(ObstacleCatalog.VARIETY.length)];
+        float direction = random.nextBoolean() ? 1 : -1;
+        float outerRadius = 3.5f + random.nextFloat() * 3.0f;
+        return obstacle(def, outerRadius, direction);
+    }
+
+    /**
+     * A catalog obstacle sized and spun as {@link #roll} would for the given
+     * outer radius (3.5 to 6.5, used by rings only) and direction (1 or -1).
+     */
+    static Layout obstacle(ObstacleDef def, float outerRadius, float direction) {
+        if (def == ObstacleCatalog.BARS) {
+            return new Layout(def, 0, 0, 1f, 0f, -1);
+        }
+        if (def == ObstacleCatalog.CROSS) {
+            return new Layout(def, 0, 0, 1f, 2f * direction, -1);
+        }
+        // Rings are sized and spun like classic rings
+        float rotationSpeed = 1.5f * (4.5f / outerRadius) * direction;
+        return new Layout(def, 0, 0, outerRadius / ObstacleCatalog.RING_OUTER_RADIUS, rotationSpeed, -1);
+    }
+
+    private Layout withChanger(int color) {
+        return new Layout(def, innerRadius, outerRadius, scale, rotationSpeed, color);
+    }
+
+    /**
+     * The obstacle as a definition, classic rings included, for the solver.
+     */
+    ObstacleDef getSolverDef() {
+        return solverDef;
+    }
+
+    public boolean isClassicRing() { return def == null; }
+    public ObstacleDef getDef() { return def; }
+    public float getInnerRadius() { return innerRadius; }
+    public float getOuterRadius() { return outerRadius; }
+    public float getScale() { return scale; }
+    public float getRotationSpeed() { return rotationSpeed; }
+    public boolean hasChanger() { return changerColor >= 0; }
+    public int getChangerColor() { return changerColor; }
+
+    /**
+     * Short name for reports: the catalog name, or "classic-ring".
+     */
+    public String getName() {
+        return def != null ? def.getName() : "classic-ring";
+    }
+}
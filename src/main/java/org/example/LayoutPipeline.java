@@ -0,0 +1,169 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a few solver-approved layouts ready for every entry color, rolled and
+ * checked on the solver's fork/join pool ahead of play, so spawning only takes
+ * one from a queue. Layouts that fail the check are dropped and re-rolled.
+ *
+ * Classic-only and mixed layouts are kept apart so the opening rings of a
+ * game stay classic. The constructor starts filling the queues and returns
+ * at once. Whenever a queue is empty, including for the first spawns while
+ * the pool is still filling, {@link #take} counts a stall and returns a
+ * classic ring without a changer, which every color can pass, rather than
+ * solving on the caller's (render) thread.
+ */
+public class LayoutPipeline {
+    /** Ready layouts kept per entry color and kind. */
+    public static final int DEPTH = 3;
+
+    private final LayoutSolver solver;
+    private final List<Queue<Layout>> ready = new ArrayList<>();
+    private final AtomicInteger[] readyCounts = new AtomicInteger[2 * Palette.COUNT];
+    private final AtomicBoolean filling = new AtomicBoolean();
+    private final CountDownLatch filled = new CountDownLatch(1);
+    private volatile boolean shutdown;
+
+    // Statistics
+    private final AtomicLong candidates = new AtomicLong();
+    private final AtomicLong unsolvableChecks = new AtomicLong();
+    private final AtomicLong solveNanos = new AtomicLong();
+    private final AtomicLong maxSolveNanos = new AtomicLong();
+    private final AtomicLong stalls = new AtomicLong();
+
+    public LayoutPipeline(LayoutSolver solver) {
+        this.solver = solver;
+        for (int i = 0; i < readyCounts.length; i++) {
+            ready.add(new ConcurrentLinkedQueue<>());
+            readyCounts[i] = new AtomicInteger();
+        }
+        refill();
+    }
+
+    /**
+     * Waits until every queue has been full at least once.
+     *
+     * @return false if the timeout passed first
+     */
+    public boolean awaitFilled(long timeout, TimeUnit unit) throws InterruptedException {
+        return filled.await(timeout, unit);
+    }
+
+    /**
+     * Next layout that a ball of {@code entryColor} can clear.
+     *
+     * @param variety whether catalog obstacles may appear (see {@link Layout#roll})
+     */
+    public Layout take(int entryColor, boolean variety) {
+        int slot = slot(entryColor, variety);
+        Layout layout = ready.get(slot).poll();
+        if (layout != null) {
+            readyCounts[slot].decrementAndGet();
+        } else {
+            stalls.incrementAndGet();
+            layout = Layout.classicRing(ThreadLocalRandom.current());
+        }
+        refill();
+        return layout;
+    }
+
+    /**
+     * Stops refilling. The pool itself belongs to the caller.
+     */
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    private void refill() {
+        if (!shutdown && filling.compareAndSet(false, true)) {
+            solver.getPool().execute(this::fill);
+        }
+    }
+
+    /**
+     * Rolls and checks layouts until every queue is full. Runs on the pool, one at a time.
+     */
+    private void fill() {
+        while (!shutdown) {
+            int needy = neediestSlot(0, readyCounts.length, -1);
+            if (needy < 0) {
+                filled.countDown();
+                filling.set(false);
+                // A take() may have drained a queue after the scan but before the flag cleared
+                if (neediestSlot(0, readyCounts.length, -1) < 0 || !filling.compareAndSet(false, true)) return;
+                continue;
+            }
+
+            boolean variety = needy >= Palette.COUNT;
+            Layout layout = Layout.roll(ThreadLocalRandom.current(), variety);
+            int colors = check(layout);
+            int base = variety ? Palette.COUNT : 0;
+            int slot = neediestSlot(base, base + Palette.COUNT, colors);
+            if (slot >= 0) {
+                ready.get(slot).add(layout);
+                readyCounts[slot].incrementAndGet();
+            }
+        }
+        filling.set(false);
+    }
+
+    /**
+     * Solves the layout for every color and records how long it took.
+     *
+     * @return the mask of colors it is solvable for
+     */
+    private int check(Layout layout) {
+        long start = System.nanoTime();
+        int colors = solver.solvableColors(layout);
+        long elapsed = System.nanoTime() - start;
+
+        candidates.incrementAndGet();
+        unsolvableChecks.addAndGet(Palette.COUNT - Integer.bitCount(colors));
+        solveNanos.addAndGet(elapsed);
+        maxSolveNanos.accumulateAndGet(elapsed, Math::max);
+        return colors;
+    }
+
+    /**
+     * Slot in [from, to) with the fewest ready layouts below {@link #DEPTH},
+     * restricted to colors in {@code colorMask}, or -1 if none.
+     */
+    private int neediestSlot(int from, int to, int colorMask) {
+        int best = -1;
+        int bestCount = DEPTH;
+        for (int slot = from; slot < to; slot++) {
+            if ((colorMask & (1 << (slot % Palette.COUNT))) == 0) continue;
+            int count = readyCounts[slot].get();
+            if (count < bestCount) {
+                best = slot;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    private static int slot(int entryColor, boolean variety) {
+        return entryColor + (variety ? Palette.COUNT : 0);
+    }
+
+    /** Layouts rolled and checked so far. */
+    public long getCandidates() { return candidates.get(); }
+    /** (layout, color) checks that found no path. */
+    public long getUnsolvableChecks() { return unsolvableChecks.get(); }
+    /** Average time to check one layout for all colors. */
+    public double getAverageSolveMillis() { return candidates.get() == 0 ? 0 : solveNanos.get() / 1e6 / candidates.get(); }
+    /** Longest time to check one layout for all colors. */
+    public double getMaxSolveMillis() { return maxSolveNanos.get() / 1e6; }
+    /** Spawns that found their queue empty and got a fallback classic ring. */
+    public long getStalls() { return stalls.get(); }
+}
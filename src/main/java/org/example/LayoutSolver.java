@@ -0,0 +1,254 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Proves a {@link Layout} can be cleared by searching for jump timings that
+ * carry the ball through its obstacle at {@link GameWorld#JUMP_VELOCITY} and
+ * {@link GameWorld#GRAVITY} without touching another color.
+ *
+ * The ball starts just below the obstacle, having just jumped. Since a player
+ * can hover there for as long as they like, any phase of the obstacle's
+ * rotation (or slide) is a valid moment to begin, so {@link #PHASES} evenly
+ * spaced starting phases are tried. From each, a depth-first search decides
+ * "jump or not" every {@link #DECISION_FRAMES} frames, simulating the game's
+ * exact per-frame parabola against the same collision test the game uses.
+ *
+ * States are merged by ball height, frames since the last jump and the
+ * obstacle's phase (not by time), so hovering in place and later starting
+ * phases quickly run into states already explored, and the whole search is
+ * bounded by that grid. Merging can occasionally turn a "yes" into a "no" (the
+ * layout is then just re-rolled), but every "yes" is a real path.
+ *
+ * Colors and groups of starting phases are searched in parallel on a fork/join pool.
+ */
+public class LayoutSolver {
+    /** Starting phases tried per color. */
+    public static final int PHASES = 24;
+    /** The search may jump only on multiples of this many frames. */
+    public static final int DECISION_FRAMES = 2;
+    /** Longest single path searched, in frames. */
+    public static final int HORIZON_FRAMES = 600;
+
+    // Starting phases are split into this many groups per color; each group shares one visited set
+    private static final int PHASE_GROUPS = 2;
+    private static final int PHASE_BUCKETS = 72;
+    private static final float Y_QUANTUM = 0.1f;
+    private static final float BALL_RADIUS = 0.5f;
+    private static final float JUMP_RISE = GameWorld.JUMP_VELOCITY * GameWorld.JUMP_VELOCITY / (-2 * GameWorld.GRAVITY);
+    private static final float FALL_MARGIN = 3f; // How far below the start the ball may drop
+    // Collision sampling. Coarser than GameWorld's swept test: the ball can't skip
+    // a part at this spacing, and the game's own test has the final say anyway
+    private static final float MAX_SUBSTEP_DISTANCE = 0.25f;
+    private static final float MAX_SUBSTEP_DEGREES = 5f;
+
+    private final ForkJoinPool pool;
+    private final ThreadLocal<Search> searches = ThreadLocal.withInitial(Search::new);
+
+    public LayoutSolver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Bit mask of the entry colors with which the layout's obstacle can be cleared.
+     */
+    public int solvableColors(Layout layout) {
+        AtomicInteger solved = new AtomicInteger();
+        pool.invoke(new SearchTask(layout, solved, 0, Palette.COUNT * PHASE_GROUPS));
+        return solved.get();
+    }
+
+    /**
+     * Whether the layout's obstacle can be cleared by a ball of the given color.
+     */
+    public boolean isSolvable(Layout layout, int entryColor) {
+        AtomicInteger solved = new AtomicInteger();
+        pool.invoke(new SearchTask(layout, solved, entryColor * PHASE_GROUPS, (entryColor + 1) * PHASE_GROUPS));
+        return solved.get() != 0;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Splits a range of (color, phase group) units down to single units. Colors
+     * already proven solvable are skipped.
+     */
+    private final class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Layout layout;
+        private final transient AtomicInteger solved;
+        private final int from, to;
+
+        SearchTask(Layout layout, AtomicInteger solved, int from, int to) {
+            this.layout = layout;
+            this.solved = solved;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SearchTask(layout, solved, from, middle), new SearchTask(layout, solved, middle, to));
+                return;
+            }
+            int color = from / PHASE_GROUPS;
+            if (searches.get().run(layout, color, from % PHASE_GROUPS, solved)) {
+                solved.getAndUpdate(mask -> mask | (1 << color));
+            }
+        }
+    }
+
+    /**
+     * Scratch state for one thread's searches, reused across layouts.
+     */
+    private static final class Search {
+        private final ObstacleField field = new ObstacleField(1, ObstacleCatalog.maxPartCount());
+        private final VisitedSet visited = new VisitedSet();
+        private int color;
+        private int substeps;
+        private float clearY;
+        private float floorY;
+        private float phaseRate; // Obstacle phase (0..1) gained per frame
+        private float startPhase;
+
+        /**
+         * Searches every starting phase in one group until a path is found or
+         * another task proves the color solvable.
+         */
+        boolean run(Layout layout, int color, int group, AtomicInteger solved) {
+            ObstacleDef def = layout.getSolverDef();
+            field.clear();
+            field.add(def, 0, layout.getScale(), layout.getRotationSpeed());
+
+            float extent = field.getExtent(0);
+            this.color = color;
+            this.clearY = extent + BALL_RADIUS;
+            float startY = -clearY - JUMP_RISE;
+            this.floorY = startY - FALL_MARGIN;
+            // Worst case per frame: the ball's fastest speed (falling to the floor) and the obstacle's motion
+            float speed = Math.max(GameWorld.JUMP_VELOCITY,
+                    (float) Math.sqrt(-2 * GameWorld.GRAVITY * (JUMP_RISE + FALL_MARGIN)));
+            this.substeps = (int) Math.ceil(Math.max(speed / MAX_SUBSTEP_DISTANCE,
+                    Math.max(field.getMaxSpin() / MAX_SUBSTEP_DEGREES, field.getMaxSlide() / MAX_SUBSTEP_DISTANCE)));
+            if (layout.getRotationSpeed() != 0) {
+                phaseRate = layout.getRotationSpeed() / 360f;
+            } else {
+                phaseRate = def.getWrap() > 0 ? def.getSlideSpeed() / def.getWrap() : 0;
+            }
+
+            visited.clear();
+            for (int phase = group; phase < PHASES; phase += PHASE_GROUPS) {
+                if ((solved.get() & (1 << color)) != 0) return false; // Another group found a path
+                startPhase = (float) phase / PHASES;
+                field.setMotion(0, 360f * startPhase, def.getWrap() * startPhase, false);
+                if (search(0, startY, GameWorld.JUMP_VELOCITY)) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Tries both choices at frame {@code t}: jumping first while falling,
+         * coasting first while rising.
+         */
+        private boolean search(int t, float y, float velocity) {
+            boolean jumpFirst = velocity < 0;
+            for (int option = 0; option < 2; option++) {
+                boolean jump = (option == 0) == jumpFirst;
+                if (jump && velocity == GameWorld.JUMP_VELOCITY) continue; // Jumping again changes nothing
+                float v = jump ? GameWorld.JUMP_VELOCITY : velocity;
+                float ball = y;
+                boolean alive = true;
+                for (int frame = 0; frame < DECISION_FRAMES && alive; frame++) {
+                    float b = v + GameWorld.GRAVITY * 0.5f;
+                    float c = GameWorld.GRAVITY * 0.5f;
+                    for (int k = 1; k <= substeps; k++) {
+                        float s = (float) k / substeps;
+                        if (field.collide(0, y(ball, b, c, s), BALL_RADIUS, color, t + frame + s)) {
+                            alive = false;
+                            break;
+                        }
+                    }
+                    ball += b + c;
+                    v += GameWorld.GRAVITY;
+                    if (alive && ball > clearY) return true;
+                }
+                if (!alive || ball < floorY || t + DECISION_FRAMES >= HORIZON_FRAMES) continue;
+
+                int next = t + DECISION_FRAMES;
+                if (visited.add(key(next, ball, v)) && search(next, ball, v)) return true;
+            }
+            return false;
+        }
+
+        private static float y(float start, float b, float c, float s) {
+            return start + (b + c * s) * s;
+        }
+
+        private long key(int t, float y, float v) {
+            float phase = startPhase + phaseRate * t;
+            long phaseBucket = (long) ((phase - (float) Math.floor(phase)) * PHASE_BUCKETS);
+            long yBucket = Math.round((y - floorY) / Y_QUANTUM);
+            long vBucket = Math.round((GameWorld.JUMP_VELOCITY - v) / -GameWorld.GRAVITY); // Frames since the jump
+            return (phaseBucket << 40) | (yBucket << 16) | (vBucket & 0xFFFF);
+        }
+    }
+
+    /**
+     * Open-addressing set of longs, cleared in O(1) by bumping a generation.
+     */
+    private static final class VisitedSet {
+        private long[] keys = new long[1 << 14];
+        private int[] generations = new int[1 << 14];
+        private int generation = 1;
+        private int size;
+
+        boolean add(long key) {
+            if (size * 2 >= keys.length) grow();
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (generations[i] == generation) {
+                if (keys[i] == key) return false;
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            generations[i] = generation;
+            size++;
+            return true;
+        }
+
+        void clear() {
+            generation++;
+            size = 0;
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(generations, 0);
+                generation = 1;
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldGenerations = generations;
+            keys = new long[oldKeys.length * 2];
+            generations = new int[oldKeys.length * 2];
+            int live = generation;
+            generation = 1;
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldGenerations[i] == live) add(oldKeys[i]);
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.example;
+
+/**
+ * Picks tessellation for circles and arcs from their projected size in pixels,
+ * so small windows don't pay for dense geometry and large displays don't show
+ * faceted edges.
+ */
+public class LevelOfDetail {
+    private static final float WORLD_WIDTH = 20f; // glOrtho spans -10..10 horizontally
+
+    private final RenderQuality quality;
+    private float pixelsPerUnit = 400 / WORLD_WIDTH;
+
+    public LevelOfDetail(RenderQuality quality) {
+        this.quality = quality;
+    }
+
+    /**
+     * Update the viewport size (call from reshape).
+     */
+    public void updateViewport(int width, int height) {
+        if (width > 0) {
+            pixelsPerUnit = width / WORLD_WIDTH;
+        }
+    }
+
+    /**
+     * Number of segments for a full circle of the given world radius. A chord
+     * spanning angle a sits r * (1 - cos(a / 2)) inside the circle, so this is the
+     * smallest count that keeps that gap under the preset's pixel error.
+     */
+    public int circleSegments(float radius) {
+        float pixelRadius = radius * pixelsPerUnit;
+        float error = quality.getMaxErrorPixels();
+        int segments;
+        if (pixelRadius <= error) {
+            segments = quality.getMinSegments();
+        } else {
+            segments = (int) Math.ceil(Math.PI / Math.acos(1 - error / pixelRadius));
+        }
+        return Math.max(quality.getMinSegments(), Math.min(quality.getMaxSegments(), segments));
+    }
+
+    /**
+     * Number of segments for an arc of the given world radius and angular span.
+     */
+    public int arcSegments(float radius, float degrees) {
+        return Math.max(1, (int) Math.ceil(circleSegments(radius) * degrees / 360f));
+    }
+
+    public RenderQuality getQuality() {
+        return quality;
+    }
+
+    public float getPixelsPerUnit() {
+        return pixelsPerUnit;
+    }
+}
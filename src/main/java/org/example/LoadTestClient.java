@@ -0,0 +1,210 @@
+package org.example;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+/**
+ * Load test for {@link GameServer}: opens many loopback connections from a
+ * single selector thread, decodes every state message and plays each game
+ * with a simple bot that jumps whenever the ball falls low and restarts as
+ * soon as the game is over.
+ *
+ * Without {@code --connect} the server runs in the same process on an
+ * ephemeral port, so its statistics can be printed alongside the client's.
+ * Client and server then share the machine, and the client's CPU is not
+ * counted in sessions per core.
+ *
+ * Run with {@code --load-test [--sessions N] [--seconds S] [--threads T]
+ * [--connect host:port]}.
+ */
+public class LoadTestClient {
+    private static final int WARMUP_SECONDS = 2;
+    /** Don't resend a jump while the last one is still on its way. */
+    private static final int JUMP_COOLDOWN_TICKS = 6;
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+    private final Selector selector;
+    private final Connection[] connections;
+    private final ByteBuffer jump = ByteBuffer.allocateDirect(1);
+
+    // Statistics
+    private long bytesReceived;
+    private long messages;
+    private long keyframes;
+    private long gamesOver;
+    private long errors;
+
+    public LoadTestClient(InetSocketAddress server, int sessions) throws IOException {
+        this.selector = Selector.open();
+        this.connections = new Connection[sessions];
+        for (int i = 0; i < sessions; i++) {
+            SocketChannel channel = SocketChannel.open();
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.connect(server); // Blocking, so the server has every session before the clock starts
+            channel.configureBlocking(false);
+            connections[i] = new Connection(channel);
+            channel.register(selector, SelectionKey.OP_READ, connections[i]);
+        }
+        jump.put(StateCodec.INPUT_JUMP).flip();
+    }
+
+    public static void run(String[] args) throws IOException {
+        int sessions = 1000;
+        int seconds = 10;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String connect = null;
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals("--sessions")) sessions = Integer.parseInt(args[i + 1]);
+            if (args[i].equals("--seconds")) seconds = Integer.parseInt(args[i + 1]);
+            if (args[i].equals("--threads")) threads = Integer.parseInt(args[i + 1]);
+            if (args[i].equals("--connect")) connect = args[i + 1];
+        }
+
+        GameServer server = null;
+        InetSocketAddress address;
+        if (connect == null) {
+            server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), threads);
+            server.start();
+            address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+        } else {
+            int colon = connect.lastIndexOf(':');
+            address = new InetSocketAddress(connect.substring(0, colon), Integer.parseInt(connect.substring(colon + 1)));
+        }
+
+        System.out.printf("Load test: %d sessions against %s for %d s%n", sessions, address, seconds);
+        LoadTestClient client = new LoadTestClient(address, sessions);
+        client.runFor(WARMUP_SECONDS * 1_000_000_000L);
+        client.resetStatistics();
+        GameServer.Stats before = server != null ? server.stats() : null;
+
+        long start = System.nanoTime();
+        client.runFor(seconds * 1_000_000_000L);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        if (server != null) {
+            server.stats().since(before).print(System.out);
+        }
+        client.printReport(elapsed);
+        client.close();
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    /**
+     * Reads, decodes and answers every connection until the time is up.
+     */
+    public void runFor(long nanos) throws IOException {
+        long end = System.nanoTime() + nanos;
+        long remaining;
+        while ((remaining = end - System.nanoTime()) > 0) {
+            selector.select(Math.max(1, remaining / 1_000_000));
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Connection connection = (Connection) key.attachment();
+                int read = connection.channel.read(connection.in);
+                if (read < 0) {
+                    key.cancel();
+                    errors++;
+                    continue;
+                }
+                bytesReceived += read;
+                connection.in.flip();
+                connection.consume();
+                connection.in.compact();
+            }
+        }
+    }
+
+    private void resetStatistics() {
+        bytesReceived = 0;
+        messages = 0;
+        keyframes = 0;
+        gamesOver = 0;
+    }
+
+    public void printReport(double seconds) {
+        int sessions = connections.length;
+        System.out.printf("Client: %d sessions, %.0f messages/s (%.1f per session per second), %d keyframes%n",
+                sessions, messages / seconds, messages / seconds / sessions, keyframes);
+        System.out.printf("  %.0f bytes per session per second received, %.1f bytes per message; %d games over; %d errors%n",
+                bytesReceived / seconds / sessions, messages == 0 ? 0 : (double) bytesReceived / messages,
+                gamesOver, errors);
+    }
+
+    public void close() throws IOException {
+        for (Connection connection : connections) {
+            connection.channel.close();
+        }
+        selector.close();
+    }
+
+    /**
+     * One session's socket, decoder and bot.
+     */
+    private final class Connection {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        final StateCodec.Decoder decoder = new StateCodec.Decoder();
+        int lastTick = -1;
+        int lastSession = -1;
+        int jumpTick = -JUMP_COOLDOWN_TICKS;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Decodes every whole message in the buffer, then plays the latest state.
+         */
+        void consume() throws IOException {
+            int[] state = null;
+            try {
+                int[] decoded;
+                while (in.hasRemaining() && (decoded = decoder.decode(in)) != null) {
+                    state = decoded;
+                    messages++;
+                    if (decoded[StateCodec.SESSION] == lastSession && decoded[StateCodec.TICK] <= lastTick) {
+                        errors++; // Ticks only go forward within a game
+                    }
+                    lastSession = decoded[StateCodec.SESSION];
+                    lastTick = decoded[StateCodec.TICK];
+                    if (decoder.lastWasKeyframe()) keyframes++;
+                }
+            } catch (IllegalStateException e) {
+                errors++;
+                channel.close();
+                return;
+            }
+            if (state != null) play(state);
+        }
+
+        private void play(int[] state) throws IOException {
+            int tick = state[StateCodec.TICK];
+            boolean wantJump;
+            if ((state[StateCodec.FLAGS] & 1) != 0) {
+                // Nothing more is sent until the game restarts, so restart now
+                gamesOver++;
+                jumpTick = -JUMP_COOLDOWN_TICKS;
+                wantJump = true;
+            } else {
+                wantJump = state[StateCodec.BALL_VELOCITY] <= 0 && state[StateCodec.BALL_Y] < -2 * StateCodec.POSITION_SCALE
+                        && tick - jumpTick >= JUMP_COOLDOWN_TICKS;
+                if (wantJump) jumpTick = tick;
+            }
+            if (wantJump) {
+                jump.rewind();
+                channel.write(jump);
+            }
+        }
+    }
+}
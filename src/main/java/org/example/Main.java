@@ -8,9 +8,92 @@ import com.jogamp.opengl.util.FPSAnimator;
 import java.awt.Frame;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
 
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("--collision-check")) {
+            int runs = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+            System.exit(CollisionCheck.run(runs) ? 0 : 1);
+        }
+        if (args.length > 0 && args[0].equals("--capture-check")) {
+            int frames = args.length > 1 ? Integer.parseInt(args[1]) : 240;
+            System.exit(CaptureCheck.run(frames) ? 0 : 1);
+        }
+        if (args.length > 0 && args[0].equals("--codec-check")) {
+            int worlds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+            System.exit(CodecCheck.run(worlds) ? 0 : 1);
+        }
+        if (args.length > 0 && args[0].equals("--stress")) {
+            StressBenchmark.run(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--rewind-bench")) {
+            RewindBenchmark.run();
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--obstacle-bench")) {
+            ObstacleBenchmark.run();
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--idle-bench")) {
+            IdleBenchmark.run(args.length > 1 ? Integer.parseInt(args[1]) : 5);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--solver-bench")) {
+            SolverBenchmark.run(args.length > 1 ? Integer.parseInt(args[1]) : 2000);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--capture-offscreen")) {
+            if (args.length < 2 || args[1].startsWith("--")) {
+                usage("--capture-offscreen <dir> [--frames N] [--capture-format png|raw] [--quality q] [--unpaced]");
+            }
+            OffscreenCapture.run(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--server")) {
+            GameServer.run(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--load-test")) {
+            LoadTestClient.run(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--jfr-analyze")) {
+            if (args.length < 2) usage("--jfr-analyze <file> [ticks]");
+            JfrAnalyzer.run(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--analyze")) {
+            if (args.length < 2) usage("--analyze <file or directory>...");
+            TelemetryAnalyzer.run(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        RenderQuality quality = RenderQuality.MEDIUM;
+        Telemetry telemetry = null;
+        String captureDirectory = null;
+        FrameCapture.Format captureFormat = FrameCapture.Format.PNG;
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals("--quality")) {
+                quality = parseQuality(args[i + 1]);
+            }
+            if (args[i].equals("--telemetry")) {
+                telemetry = new Telemetry(Paths.get(args[i + 1]));
+            }
+            if (args[i].equals("--capture")) {
+                captureDirectory = args[i + 1];
+            }
+            if (args[i].equals("--capture-format")) {
+                captureFormat = parseFormat(args[i + 1]);
+            }
+            if (args[i].equals("--jfr")) {
+                GameEvents.startRecording(Paths.get(args[i + 1]));
+            }
+        }
+
         GLProfile glp = GLProfile.getDefault();
         GLCapabilities caps = new GLCapabilities(glp);
         GLCanvas canvas = new GLCanvas(caps);
@@ -20,16 +103,66 @@ public class Main {
         frame.add(canvas);
         frame.setVisible(true);
 
+        Game game = new Game(canvas, quality);
+        game.setTelemetry(telemetry);
+        game.setGpuStars(Arrays.asList(args).contains("--gpu-stars"));
+        if (captureDirectory != null) {
+            FrameCapture capture = new FrameCapture(Paths.get(captureDirectory), captureFormat,
+                    OffscreenCapture.workers());
+            game.setFrameCapture(capture);
+        }
+        canvas.addGLEventListener(game);
+
+        FPSAnimator animator = new FPSAnimator(canvas, 60);
+        game.setRenderScheduler(new RenderScheduler(animator));
+        game.watchWindow(frame);
+        // Off the event thread: disposing the canvas runs Game.dispose on the render thread,
+        // which finishes any capture with its context still current
+        Runnable quit = () -> new Thread(() -> {
+            animator.stop();
+            frame.dispose();
+            System.exit(0);
+        }).start();
+        game.setQuitAction(quit);
         frame.addWindowListener(new WindowAdapter() {
             public void windowClosing(WindowEvent e) {
-                System.exit(0);
+                quit.run();
             }
         });
+        animator.start();
+    }
 
-        Game game = new Game(canvas);
-        canvas.addGLEventListener(game);
+    /**
+     * Prints how to run a mode that was given too few arguments, and exits.
+     */
+    static void usage(String synopsis) {
+        System.err.println("Usage: " + synopsis);
+        System.exit(2);
+    }
 
-        FPSAnimator animator = new FPSAnimator(canvas, 60);
-        animator.start();
+    /**
+     * The preset named on the command line; exits listing the valid names if there is none.
+     */
+    static RenderQuality parseQuality(String name) {
+        try {
+            return RenderQuality.fromName(name);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return null;
+        }
+    }
+
+    /**
+     * The capture format named on the command line; exits listing the valid names if there is none.
+     */
+    static FrameCapture.Format parseFormat(String name) {
+        try {
+            return FrameCapture.Format.fromName(name);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return null;
+        }
     }
 }
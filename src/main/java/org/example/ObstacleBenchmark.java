@@ -0,0 +1,135 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares per-frame update and collision cost of classic {@link Ring} objects
+ * with the same rings compiled into an {@link ObstacleField}, and with a field
+ * mixing every catalog type, for growing obstacle counts.
+ *
+ * Run with {@code --obstacle-bench}. Headless: rendering isn't measured here,
+ * use {@code --stress} on screen for that.
+ */
+public class ObstacleBenchmark {
+    private static final int[] COUNTS = {10, 100, 1000, 10000};
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int OBSTACLE_FRAMES = 20_000_000; // Work per row: obstacles times frames
+    private static final int MIN_FRAMES = 1000;
+    private static final float BALL_RADIUS = 0.5f;
+
+    // Collision results are summed here so the JIT can't drop the tests
+    private static volatile int sink;
+
+    public static void run() {
+        System.out.printf("Obstacle benchmark (%d obstacle-frames per row, ns per obstacle per frame, update + collision)%n",
+                OBSTACLE_FRAMES);
+        // Let the JIT compile every path before the smallest row is timed
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            timeRings(1000);
+            timeField(1000, false);
+            timeField(1000, true);
+        }
+
+        System.out.printf("%9s %12s %12s %12s%n", "obstacles", "Ring list", "field ring4", "field mixed");
+        for (int count : COUNTS) {
+            double classic = 0, compiled = 0, mixed = 0;
+            for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+                classic = timeRings(count);
+                compiled = timeField(count, false);
+                mixed = timeField(count, true);
+            }
+            System.out.printf("%9d %12.2f %12.2f %12.2f%n", count, classic, compiled, mixed);
+        }
+    }
+
+    /**
+     * Today's path: a list of Ring objects, each updated and tested through its own methods.
+     */
+    private static double timeRings(int count) {
+        Random random = new Random(count);
+        float[] ys = sortedHeights(random, count);
+        List<Ring> rings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            float outerRadius = 3.5f + random.nextFloat() * 3.0f;
+            float innerRadius = outerRadius - (0.8f + random.nextFloat() * 0.7f);
+            float speed = 1.5f * (4.5f / outerRadius) * (random.nextBoolean() ? 1 : -1);
+            rings.add(new Ring(ys[i], innerRadius, outerRadius, speed));
+        }
+        PlayerBall ball = new PlayerBall(0, BALL_RADIUS, 0);
+
+        int hits = 0;
+        long start = System.nanoTime();
+        for (int frame = 0; frame < frames(count); frame++) {
+            ball.setY(ballY(frame));
+            for (Ring ring : rings) {
+                ring.update(1f);
+            }
+            // Stop at the first hit, as GameWorld does
+            for (Ring ring : rings) {
+                if (ball.isCollidingWithRing(ring)
+                        && ring.getSegmentAtAngle(ball.getX(), ball.getY()) != ball.getColorIndex()) {
+                    hits++;
+                    break;
+                }
+            }
+        }
+        return finish(start, count, hits);
+    }
+
+    /**
+     * The compiled path: the same kind of rings (or a mix of every type) in flat arrays.
+     */
+    private static double timeField(int count, boolean mixed) {
+        Random random = new Random(count);
+        float[] ys = sortedHeights(random, count);
+        ObstacleField field = new ObstacleField(count, count * ObstacleCatalog.maxPartCount());
+        for (int i = 0; i < count; i++) {
+            ObstacleDef def = mixed ? ObstacleCatalog.byId(i % ObstacleCatalog.size()) : ObstacleCatalog.RING_4;
+            float outerRadius = 3.5f + random.nextFloat() * 3.0f;
+            float speed = 1.5f * (4.5f / outerRadius) * (random.nextBoolean() ? 1 : -1);
+            field.add(def, ys[i], outerRadius / ObstacleCatalog.RING_OUTER_RADIUS, speed);
+        }
+
+        int hits = 0;
+        long start = System.nanoTime();
+        for (int frame = 0; frame < frames(count); frame++) {
+            field.update(1f);
+            if (field.collide(0, ballY(frame), BALL_RADIUS, 0, 0)) {
+                hits++;
+            }
+        }
+        return finish(start, count, hits);
+    }
+
+    /**
+     * Obstacles spread over the visible band, as in the stress scene.
+     */
+    private static float[] sortedHeights(Random random, int count) {
+        float[] ys = new float[count];
+        for (int i = 0; i < count; i++) {
+            ys[i] = -15 + random.nextFloat() * 30;
+        }
+        Arrays.sort(ys);
+        return ys;
+    }
+
+    /**
+     * The ball sweeps up and down through the band.
+     */
+    private static float ballY(int frame) {
+        return -15 + 30 * Math.abs((frame % 200) / 100f - 1);
+    }
+
+    private static double finish(long start, int count, int hits) {
+        double nanos = System.nanoTime() - start;
+        sink += hits;
+        return nanos / frames(count) / count;
+    }
+
+    private static int frames(int count) {
+        return Math.max(MIN_FRAMES, OBSTACLE_FRAMES / count);
+    }
+}
@@ -0,0 +1,101 @@
+package org.example;
+
+/**
+ * The obstacle types the game can spawn, declared as data. Ring sizes are for
+ * scale 1; {@link GameWorld} scales rings and picks rotation speeds per spawn.
+ *
+ * Every entry must be passable by a ball of any color, so each one carries all
+ * {@link Palette#COUNT} colors on every band the ball crosses;
+ * {@code --collision-check} verifies this with {@link LayoutSolver}.
+ */
+public final class ObstacleCatalog {
+    public static final float RING_OUTER_RADIUS = 5f;
+    public static final float RING_INNER_RADIUS = 4f;
+
+    public static final ObstacleDef RING_5 = ring(5);
+    public static final ObstacleDef RING_4 = ring(4);
+    public static final ObstacleDef RING_6 = ring(6);
+
+    /**
+     * Two concentric rings turning in opposite directions. The inner ring's
+     * colors run the other way round from the opposite side, so as the rings
+     * counter-rotate each color meets itself at the bottom, and at the top, of
+     * both bands for a quarter of every turn.
+     */
+    public static final ObstacleDef DOUBLE_RING = new ObstacleDef("double-ring")
+            .arc(0, 0, RING_INNER_RADIUS, RING_OUTER_RADIUS, 0, 360, 1, 0, 1, 2, 3)
+            .arc(0, 0, 2.8f, 3.5f, 180, 360, -1, 3, 2, 1, 0);
+
+    /** Four arms turning around a pivot left of the ball's path. */
+    public static final ObstacleDef CROSS = new ObstacleDef("cross")
+            .bar(-2.6f, 0, 0, 3.4f, 0.25f, 0, 1, 0)
+            .bar(-2.6f, 0, 0, 3.4f, 0.25f, 90, 1, 1)
+            .bar(-2.6f, 0, 0, 3.4f, 0.25f, 180, 1, 2)
+            .bar(-2.6f, 0, 0, 3.4f, 0.25f, 270, 1, 3);
+
+    /** A row of bars sliding across the screen. */
+    public static final ObstacleDef BARS = bars(8, 2.5f, 0.3f, 20f, 0.04f);
+
+    private static final ObstacleDef[] ALL = {RING_4, RING_5, RING_6, DOUBLE_RING, CROSS, BARS};
+
+    /** Types mixed in between the classic rings. */
+    static final ObstacleDef[] VARIETY = {RING_5, RING_6, DOUBLE_RING, CROSS, BARS};
+
+    static {
+        for (int i = 0; i < ALL.length; i++) {
+            ALL[i].setId(i);
+        }
+    }
+
+    private ObstacleCatalog() {
+    }
+
+    /**
+     * A ring of the given number of equal segments, colored in palette order.
+     * Needs at least one segment per color, or some balls could never pass.
+     */
+    public static ObstacleDef ring(int segments) {
+        if (segments < Palette.COUNT) {
+            throw new IllegalArgumentException("A ring needs at least " + Palette.COUNT + " segments, got " + segments);
+        }
+        int[] colors = new int[segments];
+        for (int i = 0; i < segments; i++) {
+            colors[i] = i % Palette.COUNT;
+        }
+        return new ObstacleDef("ring-" + segments)
+                .arc(0, 0, RING_INNER_RADIUS, RING_OUTER_RADIUS, 0, 360, 1, colors);
+    }
+
+    /**
+     * {@code count} evenly spaced horizontal bars filling {@code wrap} units,
+     * colored in palette order.
+     */
+    public static ObstacleDef bars(int count, float length, float halfHeight, float wrap, float speed) {
+        ObstacleDef def = new ObstacleDef("bars-" + count).slide(speed, wrap);
+        float pitch = wrap / count;
+        for (int i = 0; i < count; i++) {
+            float x = -wrap / 2 + pitch * (i + 0.5f);
+            def.bar(x, 0, -length / 2, length / 2, halfHeight, 0, 0, i % Palette.COUNT);
+        }
+        return def;
+    }
+
+    public static ObstacleDef byId(int id) {
+        return ALL[id];
+    }
+
+    /**
+     * Most parts any catalog entry compiles to.
+     */
+    public static int maxPartCount() {
+        int max = 0;
+        for (ObstacleDef def : ALL) {
+            max = Math.max(max, def.getPartCount());
+        }
+        return max;
+    }
+
+    public static int size() {
+        return ALL.length;
+    }
+}
@@ -0,0 +1,111 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Declarative description of an obstacle as a list of colored parts, in units
+ * relative to the obstacle's origin. {@link ObstacleField} compiles these into
+ * flat arrays when an obstacle is spawned.
+ *
+ * Two part kinds cover every obstacle in {@link ObstacleCatalog}:
+ * <ul>
+ *   <li>ARC: a band between two radii around a center, split into equal
+ *       segments, each with its own color</li>
+ *   <li>BAR: a rectangle of the given half width running from distance
+ *       {@code from} to {@code to} along a direction out of a pivot</li>
+ * </ul>
+ * Each part turns with the obstacle's rotation times its spin factor
+ * (1, -1, or 0 for parts that don't rotate). An obstacle can also slide
+ * sideways, wrapping around after {@code wrap} units.
+ */
+public class ObstacleDef {
+    public static final byte ARC = 0;
+    public static final byte BAR = 1;
+
+    /** Most colored segments one ARC part may have. */
+    public static final int MAX_SEGMENTS = 8;
+
+    private final String name;
+    private final List<Part> parts = new ArrayList<>();
+    private float slideSpeed;
+    private float wrap;
+    private int id = -1;
+
+    public ObstacleDef(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Adds a band from {@code startAngle} spanning {@code span} degrees, split into
+     * one equal segment per color.
+     */
+    public ObstacleDef arc(float x, float y, float innerRadius, float outerRadius,
+                           float startAngle, float span, float spin, int... colors) {
+        if (colors.length == 0 || colors.length > MAX_SEGMENTS) {
+            throw new IllegalArgumentException("An arc needs 1 to " + MAX_SEGMENTS + " colors, got " + colors.length);
+        }
+        parts.add(new Part(ARC, x, y, innerRadius, outerRadius, 0, startAngle, span, spin, colors.clone()));
+        return this;
+    }
+
+    /**
+     * Adds a bar pointing at {@code angle} degrees from the pivot (x, y).
+     */
+    public ObstacleDef bar(float x, float y, float from, float to, float halfWidth,
+                           float angle, float spin, int color) {
+        parts.add(new Part(BAR, x, y, from, to, halfWidth, angle, 0, spin, new int[]{color}));
+        return this;
+    }
+
+    /**
+     * Makes the obstacle slide sideways by {@code speed} units per frame,
+     * wrapping every {@code wrap} units.
+     */
+    public ObstacleDef slide(float speed, float wrap) {
+        this.slideSpeed = speed;
+        this.wrap = wrap;
+        return this;
+    }
+
+    public String getName() { return name; }
+    public int getPartCount() { return parts.size(); }
+    public float getSlideSpeed() { return slideSpeed; }
+    public float getWrap() { return wrap; }
+
+    /**
+     * Index in {@link ObstacleCatalog}, or -1 for definitions not registered there.
+     */
+    public int getId() { return id; }
+    void setId(int id) { this.id = id; }
+
+    Part getPart(int index) { return parts.get(index); }
+
+    /**
+     * One part as declared; all lengths are scaled when compiled.
+     */
+    static final class Part {
+        final byte kind;
+        final float x, y;
+        final float from, to; // ARC: inner and outer radius. BAR: distance range along the bar
+        final float halfWidth;
+        final float startAngle;
+        final float span;
+        final float spin;
+        final int[] colors;
+
+        Part(byte kind, float x, float y, float from, float to, float halfWidth,
+             float startAngle, float span, float spin, int[] colors) {
+            this.kind = kind;
+            this.x = x;
+            this.y = y;
+            this.from = from;
+            this.to = to;
+            this.halfWidth = halfWidth;
+            this.startAngle = startAngle;
+            this.span = span;
+            this.spin = spin;
+            this.colors = colors;
+        }
+    }
+}
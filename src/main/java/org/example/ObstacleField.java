@@ -0,0 +1,428 @@
+package org.example;
+
+import com.jogamp.opengl.GL2;
+
+import java.util.Arrays;
+
+/**
+ * Every spawned obstacle compiled from its {@link ObstacleDef} into flat
+ * primitive arrays, one set per obstacle and one per part. Update, collision and
+ * drawing are plain loops over those arrays that branch on the part kind, with
+ * no per-object calls.
+ *
+ * Obstacles must be added in order of increasing y (as the game spawns them),
+ * which lets collision stop at the first obstacle above the ball and removal
+ * drop a prefix. Arrays only grow; removing and re-adding obstacles allocates
+ * nothing once capacity is reached.
+ */
+public class ObstacleField {
+    private static final int STRIDE = ObstacleDef.MAX_SEGMENTS;
+
+    // Per obstacle
+    private int count;
+    private ObstacleDef[] defs;
+    private float[] y;
+    private float[] angle;   // Rotation in degrees, added to each part's start angle times its spin factor
+    private float[] spin;    // Degrees per frame
+    private float[] shift;   // Sideways offset of every part
+    private float[] slide;   // Units per frame
+    private float[] wrap;    // Shift wraps every this many units (0 = no wrapping)
+    private float[] scale;
+    private float[] extent;  // Farthest any part reaches above or below y
+    private int[] firstPart;
+    private int[] partCount;
+    private boolean[] passed;
+    private float maxExtent;
+
+    // Per part
+    private int parts;
+    private byte[] kind;
+    private float[] partX, partY;
+    private float[] from, to;
+    private float[] halfWidth;
+    private float[] startAngle;
+    private float[] span;
+    private float[] spinFactor;
+    private int[] segments;
+    private int[] colors; // STRIDE entries per part
+
+    public ObstacleField(int obstacleCapacity, int partCapacity) {
+        defs = new ObstacleDef[0];
+        y = angle = spin = shift = slide = wrap = scale = extent = new float[0];
+        firstPart = partCount = new int[0];
+        passed = new boolean[0];
+        kind = new byte[0];
+        partX = partY = from = to = halfWidth = startAngle = span = spinFactor = new float[0];
+        segments = colors = new int[0];
+        reserve(obstacleCapacity, partCapacity);
+    }
+
+    /**
+     * Compiles and appends an obstacle. Its y must not be below the last one added.
+     *
+     * @param scale multiplies every length in the definition
+     * @param spin rotation speed in degrees per frame
+     */
+    public void add(ObstacleDef def, float y, float scale, float spin) {
+        if (count > 0 && y < this.y[count - 1]) {
+            throw new IllegalArgumentException("Obstacles must be added bottom to top");
+        }
+        reserve(count + 1, parts + def.getPartCount());
+
+        int o = count++;
+        defs[o] = def;
+        this.y[o] = y;
+        angle[o] = 0;
+        this.spin[o] = spin;
+        shift[o] = 0;
+        slide[o] = def.getSlideSpeed();
+        wrap[o] = def.getWrap();
+        this.scale[o] = scale;
+        firstPart[o] = parts;
+        partCount[o] = def.getPartCount();
+        passed[o] = false;
+
+        float reach = 0;
+        for (int i = 0; i < def.getPartCount(); i++) {
+            ObstacleDef.Part part = def.getPart(i);
+            int p = parts++;
+            kind[p] = part.kind;
+            partX[p] = part.x * scale;
+            partY[p] = part.y * scale;
+            from[p] = part.from * scale;
+            to[p] = part.to * scale;
+            halfWidth[p] = part.halfWidth * scale;
+            startAngle[p] = part.startAngle;
+            span[p] = part.span;
+            spinFactor[p] = part.spin;
+            segments[p] = part.colors.length;
+            System.arraycopy(part.colors, 0, colors, p * STRIDE, part.colors.length);
+            reach = Math.max(reach, Math.abs(partY[p]) + verticalReach(p));
+        }
+        extent[o] = reach;
+        maxExtent = Math.max(maxExtent, reach);
+    }
+
+    /**
+     * Restores rotation, sideways offset and passed flag (used by {@link RewindBuffer}).
+     */
+    void setMotion(int o, float angle, float shift, boolean passed) {
+        this.angle[o] = angle;
+        this.shift[o] = shift;
+        this.passed[o] = passed;
+    }
+
+    /**
+     * Moves the obstacle added last to where it would be after turning and
+     * sliding for this many frames.
+     */
+    void startAt(float frames) {
+        int o = count - 1;
+        angle[o] = wrapInto((float) ((double) spin[o] * frames % 360), 360);
+        if (wrap[o] > 0) shift[o] = wrapInto((float) ((double) slide[o] * frames % wrap[o]), wrap[o]);
+    }
+
+    public void update(float dt) {
+        for (int o = 0; o < count; o++) {
+            angle[o] = wrapInto(angle[o] + spin[o] * dt, 360);
+        }
+        for (int o = 0; o < count; o++) {
+            if (wrap[o] > 0) shift[o] = wrapInto(shift[o] + slide[o] * dt, wrap[o]);
+        }
+    }
+
+    /**
+     * Tests a ball against every obstacle as they will be {@code time} frames
+     * after their current state.
+     *
+     * @return whether the ball touches a part of any color other than {@code color}
+     */
+    public boolean collide(float bx, float by, float radius, int color, float time) {
+        for (int o = 0; o < count; o++) {
+            float dy = by - y[o];
+            if (dy < -(maxExtent + radius)) break; // This and every later obstacle is above the ball
+            if (Math.abs(dy) >= extent[o] + radius) continue;
+
+            float rotation = angle[o] + spin[o] * time;
+            float offset = shift[o] + slide[o] * time;
+            int end = firstPart[o] + partCount[o];
+            for (int p = firstPart[o]; p < end; p++) {
+                float dx = bx - partX[p] - offset;
+                if (wrap[o] > 0) dx = wrapped(dx, wrap[o]);
+                int touched = kind[p] == ObstacleDef.ARC
+                        ? touchArc(p, dx, dy - partY[p], radius, rotation)
+                        : touchBar(p, dx, dy - partY[p], radius, rotation);
+                if (touched >= 0 && touched != color) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks the lowest not yet passed obstacle whose center is below {@code by}
+     * as passed and returns its index, or -1 if there is none.
+     */
+    public int nextPassed(float by) {
+        for (int o = 0; o < count && y[o] < by; o++) {
+            if (!passed[o]) {
+                passed[o] = true;
+                return o;
+            }
+        }
+        return -1;
+    }
+
+    public void shiftY(float dy) {
+        for (int o = 0; o < count; o++) {
+            y[o] -= dy;
+        }
+    }
+
+    /**
+     * Drops every obstacle whose center is below {@code limit}.
+     */
+    public void removeBelow(float limit) {
+        int removed = 0;
+        while (removed < count && y[removed] < limit) removed++;
+        if (removed == 0) return;
+
+        int removedParts = removed < count ? firstPart[removed] : parts;
+        count -= removed;
+        parts -= removedParts;
+        System.arraycopy(defs, removed, defs, 0, count);
+        Arrays.fill(defs, count, count + removed, null);
+        drop(y, removed, count);
+        drop(angle, removed, count);
+        drop(spin, removed, count);
+        drop(shift, removed, count);
+        drop(slide, removed, count);
+        drop(wrap, removed, count);
+        drop(scale, removed, count);
+        drop(extent, removed, count);
+        System.arraycopy(firstPart, removed, firstPart, 0, count);
+        System.arraycopy(partCount, removed, partCount, 0, count);
+        System.arraycopy(passed, removed, passed, 0, count);
+        for (int o = 0; o < count; o++) {
+            firstPart[o] -= removedParts;
+        }
+
+        System.arraycopy(kind, removedParts, kind, 0, parts);
+        drop(partX, removedParts, parts);
+        drop(partY, removedParts, parts);
+        drop(from, removedParts, parts);
+        drop(to, removedParts, parts);
+        drop(halfWidth, removedParts, parts);
+        drop(startAngle, removedParts, parts);
+        drop(span, removedParts, parts);
+        drop(spinFactor, removedParts, parts);
+        System.arraycopy(segments, removedParts, segments, 0, parts);
+        System.arraycopy(colors, removedParts * STRIDE, colors, 0, parts * STRIDE);
+
+        maxExtent = 0;
+        for (int o = 0; o < count; o++) {
+            maxExtent = Math.max(maxExtent, extent[o]);
+        }
+    }
+
+    /**
+     * Moves the {@code remaining} entries after the first {@code removed} to the front.
+     */
+    private static void drop(float[] column, int removed, int remaining) {
+        System.arraycopy(column, removed, column, 0, remaining);
+    }
+
+    public void clear() {
+        Arrays.fill(defs, 0, count, null);
+        count = 0;
+        parts = 0;
+        maxExtent = 0;
+    }
+
+    public void draw(GL2 gl, LevelOfDetail lod) {
+        for (int o = 0; o < count; o++) {
+            if (y[o] - extent[o] > 30 || y[o] + extent[o] < -30) continue; // Off screen
+            for (int p = firstPart[o]; p < firstPart[o] + partCount[o]; p++) {
+                float x = partX[p] + shift[o];
+                if (wrap[o] > 0) {
+                    x = wrapped(x, wrap[o]);
+                    // Also draw the copy entering from the other side
+                    float reach = kind[p] == ObstacleDef.ARC ? to[p] : Math.max(Math.abs(from[p]), Math.abs(to[p])) + halfWidth[p];
+                    if (Math.abs(x) + reach > wrap[o] / 2) {
+                        drawPart(gl, lod, p, x - Math.signum(x) * wrap[o], y[o] + partY[p], angle[o]);
+                    }
+                }
+                drawPart(gl, lod, p, x, y[o] + partY[p], angle[o]);
+            }
+        }
+    }
+
+    private void drawPart(GL2 gl, LevelOfDetail lod, int p, float cx, float cy, float rotation) {
+        float start = startAngle[p] + spinFactor[p] * rotation;
+        if (kind[p] == ObstacleDef.ARC) {
+            float step = span[p] / segments[p];
+            int tessellation = lod.arcSegments(to[p], step);
+            for (int s = 0; s < segments[p]; s++) {
+                gl.glColor3fv(Palette.COLORS[colors[p * STRIDE + s]], 0);
+                gl.glBegin(GL2.GL_TRIANGLE_STRIP);
+                for (int i = 0; i <= tessellation; i++) {
+                    double a = Math.toRadians(start + step * s + step * i / tessellation);
+                    float cos = (float) Math.cos(a);
+                    float sin = (float) Math.sin(a);
+                    gl.glVertex2f(cx + from[p] * cos, cy + from[p] * sin);
+                    gl.glVertex2f(cx + to[p] * cos, cy + to[p] * sin);
+                }
+                gl.glEnd();
+            }
+        } else {
+            double a = Math.toRadians(start);
+            float ux = (float) Math.cos(a);
+            float uy = (float) Math.sin(a);
+            float w = halfWidth[p];
+            gl.glColor3fv(Palette.COLORS[colors[p * STRIDE]], 0);
+            gl.glBegin(GL2.GL_TRIANGLE_STRIP);
+            gl.glVertex2f(cx + ux * from[p] + uy * w, cy + uy * from[p] - ux * w);
+            gl.glVertex2f(cx + ux * from[p] - uy * w, cy + uy * from[p] + ux * w);
+            gl.glVertex2f(cx + ux * to[p] + uy * w, cy + uy * to[p] - ux * w);
+            gl.glVertex2f(cx + ux * to[p] - uy * w, cy + uy * to[p] + ux * w);
+            gl.glEnd();
+        }
+    }
+
+    /**
+     * Color of the arc segment under the ball's center if the ball overlaps the
+     * band, else -1.
+     */
+    private int touchArc(int p, float dx, float dy, float radius, float rotation) {
+        float distSq = dx * dx + dy * dy;
+        float hi = to[p] + radius;
+        float lo = from[p] - radius;
+        if (distSq >= hi * hi || (lo > 0 && distSq <= lo * lo)) return -1;
+
+        double local = (Math.toDegrees(Math.atan2(dy, dx)) - startAngle[p] - spinFactor[p] * rotation) % 360;
+        if (local < 0) local += 360;
+        if (local >= span[p]) return -1;
+        int segment = Math.min(segments[p] - 1, (int) (local * segments[p] / span[p]));
+        return colors[p * STRIDE + segment];
+    }
+
+    /**
+     * Color of the bar if the ball overlaps it, else -1.
+     */
+    private int touchBar(int p, float dx, float dy, float radius, float rotation) {
+        double a = Math.toRadians(startAngle[p] + spinFactor[p] * rotation);
+        float ux = (float) Math.cos(a);
+        float uy = (float) Math.sin(a);
+        // Ball center in the bar's frame
+        float u = dx * ux + dy * uy;
+        float v = dy * ux - dx * uy;
+        float du = u - Math.max(from[p], Math.min(to[p], u));
+        float dv = v - Math.max(-halfWidth[p], Math.min(halfWidth[p], v));
+        return du * du + dv * dv < radius * radius ? colors[p * STRIDE] : -1;
+    }
+
+    /**
+     * Half height of a part around its own center or pivot.
+     */
+    private float verticalReach(int p) {
+        if (kind[p] == ObstacleDef.ARC) return to[p];
+        float length = Math.max(Math.abs(from[p]), Math.abs(to[p]));
+        if (spinFactor[p] != 0) return length + halfWidth[p];
+        double a = Math.toRadians(startAngle[p]);
+        return (float) (length * Math.abs(Math.sin(a)) + halfWidth[p] * Math.abs(Math.cos(a)));
+    }
+
+    /**
+     * x brought into [0, period). One step moves less than a period, so a single
+     * add or subtract is enough and avoids the much slower floating point %.
+     */
+    private static float wrapInto(float x, float period) {
+        if (x >= period) {
+            x -= period;
+        } else if (x < 0) {
+            x += period;
+        }
+        return x >= 0 && x < period ? x : ((x % period) + period) % period;
+    }
+
+    private static float wrapped(float x, float wrap) {
+        float half = wrap / 2;
+        x = (x + half) % wrap;
+        if (x < 0) x += wrap;
+        return x - half;
+    }
+
+    /**
+     * Grows the arrays so this many obstacles and parts fit without allocating.
+     */
+    public void reserve(int obstacleCapacity, int partCapacity) {
+        if (obstacleCapacity > y.length) {
+            int n = Math.max(obstacleCapacity, y.length * 2);
+            defs = Arrays.copyOf(defs, n);
+            y = Arrays.copyOf(y, n);
+            angle = Arrays.copyOf(angle, n);
+            spin = Arrays.copyOf(spin, n);
+            shift = Arrays.copyOf(shift, n);
+            slide = Arrays.copyOf(slide, n);
+            wrap = Arrays.copyOf(wrap, n);
+            scale = Arrays.copyOf(scale, n);
+            extent = Arrays.copyOf(extent, n);
+            firstPart = Arrays.copyOf(firstPart, n);
+            partCount = Arrays.copyOf(partCount, n);
+            passed = Arrays.copyOf(passed, n);
+        }
+        if (partCapacity > kind.length) {
+            int n = Math.max(partCapacity, kind.length * 2);
+            kind = Arrays.copyOf(kind, n);
+            partX = Arrays.copyOf(partX, n);
+            partY = Arrays.copyOf(partY, n);
+            from = Arrays.copyOf(from, n);
+            to = Arrays.copyOf(to, n);
+            halfWidth = Arrays.copyOf(halfWidth, n);
+            startAngle = Arrays.copyOf(startAngle, n);
+            span = Arrays.copyOf(span, n);
+            spinFactor = Arrays.copyOf(spinFactor, n);
+            segments = Arrays.copyOf(segments, n);
+            colors = Arrays.copyOf(colors, n * STRIDE);
+        }
+    }
+
+    /**
+     * Fastest rotation of any obstacle, in degrees per frame.
+     */
+    public float getMaxSpin() {
+        float max = 0;
+        for (int o = 0; o < count; o++) {
+            max = Math.max(max, Math.abs(spin[o]));
+        }
+        return max;
+    }
+
+    /**
+     * Fastest sideways motion of any obstacle, in units per frame.
+     */
+    public float getMaxSlide() {
+        float max = 0;
+        for (int o = 0; o < count; o++) {
+            max = Math.max(max, Math.abs(slide[o]));
+        }
+        return max;
+    }
+
+    // Getters
+    public int getCount() { return count; }
+    public ObstacleDef getDef(int o) { return defs[o]; }
+    public float getY(int o) { return y[o]; }
+    public float getAngle(int o) { return angle[o]; }
+    public float getShift(int o) { return shift[o]; }
+    public float getSpin(int o) { return spin[o]; }
+    public float getScale(int o) { return scale[o]; }
+    public float getExtent(int o) { return extent[o]; }
+    public boolean isPassed(int o) { return passed[o]; }
+
+    /**
+     * y of the highest obstacle, or negative infinity when empty.
+     */
+    public float getTopY() {
+        return count == 0 ? Float.NEGATIVE_INFINITY : y[count - 1];
+    }
+}
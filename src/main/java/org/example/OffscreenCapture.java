@@ -0,0 +1,79 @@
+package org.example;
+
+import com.jogamp.opengl.GLCapabilities;
+import com.jogamp.opengl.GLDrawableFactory;
+import com.jogamp.opengl.GLOffscreenAutoDrawable;
+import com.jogamp.opengl.GLProfile;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Records the game playing itself to an image sequence with no window, on an
+ * offscreen framebuffer. Still needs an OpenGL driver; {@code --capture-check}
+ * tests the capture itself without one.
+ *
+ * Frames are paced at 60 per second as in the game, so drops show whether the
+ * encoders keep up in real time. Use {@code --unpaced} to render as fast as
+ * possible instead.
+ *
+ * Run with {@code --capture-offscreen <dir> [--frames N] [--capture-format png|raw]
+ * [--quality q] [--unpaced]}.
+ */
+public class OffscreenCapture {
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 800;
+    private static final long FRAME_NANOS = 1_000_000_000L / 60;
+
+    public static void run(String[] args) throws IOException {
+        int frames = 600;
+        FrameCapture.Format format = FrameCapture.Format.PNG;
+        RenderQuality quality = RenderQuality.MEDIUM;
+        boolean paced = true;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--unpaced")) paced = false;
+            if (i + 1 < args.length) {
+                if (args[i].equals("--frames")) frames = Integer.parseInt(args[i + 1]);
+                if (args[i].equals("--capture-format")) format = Main.parseFormat(args[i + 1]);
+                if (args[i].equals("--quality")) quality = Main.parseQuality(args[i + 1]);
+            }
+        }
+
+        GLProfile profile = GLProfile.get(GLProfile.GL2);
+        GLCapabilities caps = new GLCapabilities(profile);
+        caps.setOnscreen(false);
+        caps.setFBO(true);
+        GLOffscreenAutoDrawable drawable = GLDrawableFactory.getFactory(profile)
+                .createOffscreenAutoDrawable(null, caps, null, WIDTH, HEIGHT);
+
+        Game game = new Game(null, quality);
+        game.setAutoPlay(true);
+        game.setFrameCapture(new FrameCapture(Paths.get(args[0]), format, workers()));
+        drawable.addGLEventListener(game);
+
+        long next = System.nanoTime();
+        for (int frame = 0; frame < frames; frame++) {
+            drawable.display();
+            if (paced) {
+                next += FRAME_NANOS;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    try {
+                        Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+        }
+        drawable.destroy(); // Disposes the game, which finishes the capture and prints its summary
+    }
+
+    /**
+     * Encoding threads: every core but the one rendering.
+     */
+    static int workers() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    }
+}
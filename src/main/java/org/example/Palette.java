@@ -0,0 +1,18 @@
+package org.example;
+
+/**
+ * The four obstacle and ball colors, shared by everything that draws or matches them.
+ */
+public final class Palette {
+    public static final float[][] COLORS = {
+            {0.0f, 1.0f, 1.0f}, // Cyan
+            {1.0f, 1.0f, 0.0f}, // Yellow
+            {1.0f, 0.0f, 1.0f}, // Magenta
+            {0.5f, 0.0f, 1.0f}  // Purple
+    };
+
+    public static final int COUNT = COLORS.length;
+
+    private Palette() {
+    }
+}
@@ -11,18 +11,18 @@ public class PlayerBall {
     private int colorIndex;
     private final Random random = new Random();
 
-    private static final float[][] COLORS = {
-            {0.0f, 1.0f, 1.0f}, // Cyan
-            {1.0f, 1.0f, 0.0f}, // Yellow
-            {1.0f, 0.0f, 1.0f}, // Magenta
-            {0.5f, 0.0f, 1.0f}  // Purple
-    };
-
     public PlayerBall(float y, float radius) {
         this.y = y;
         this.radius = radius;
         this.velocityY = 0;
-        this.colorIndex = random.nextInt(COLORS.length);
+        this.colorIndex = random.nextInt(Palette.COUNT);
+    }
+
+    public PlayerBall(float y, float radius, int colorIndex) {
+        this.y = y;
+        this.radius = radius;
+        this.velocityY = 0;
+        this.colorIndex = colorIndex;
     }
 
     public void applyGravity(float gravity) {
@@ -37,15 +37,24 @@ public class PlayerBall {
         this.y += velocityY;
     }
 
-    public void draw(GL2 gl) {
-        gl.glColor3fv(COLORS[colorIndex], 0);
-        drawCircle(gl, x, y, radius, 32);
+    /**
+     * Advances the ball by dt frames under constant gravity.
+     * Lands exactly where applyGravity() followed by update() would after each whole frame.
+     */
+    public void step(float gravity, float dt) {
+        this.y += (velocityY + gravity * 0.5f) * dt + gravity * 0.5f * dt * dt;
+        this.velocityY += gravity * dt;
+    }
+
+    public void draw(GL2 gl, LevelOfDetail lod) {
+        gl.glColor3fv(Palette.COLORS[colorIndex], 0);
+        drawCircle(gl, x, y, radius, lod.circleSegments(radius));
     }
 
     public void changeColor() {
         int newColorIndex;
         do {
-            newColorIndex = random.nextInt(COLORS.length);
+            newColorIndex = random.nextInt(Palette.COUNT);
         } while (newColorIndex == this.colorIndex);
         this.colorIndex = newColorIndex;
     }
@@ -69,6 +78,8 @@ public class PlayerBall {
     public float getY() { return y; }
     public void setY(float y) { this.y = y; }
     public float getRadius() { return radius; }
+    public float getVelocityY() { return velocityY; }
+    public void setVelocityY(float velocityY) { this.velocityY = velocityY; }
     public int getColorIndex() { return colorIndex; }
 
     public boolean isCollidingWithRing(Ring ring) {
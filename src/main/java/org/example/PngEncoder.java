@@ -0,0 +1,108 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Minimal PNG writer for frames read back from OpenGL: RGBA bytes, bottom row
+ * first, written as an 8-bit RGB image the right way up.
+ *
+ * Compresses at {@link Deflater#BEST_SPEED} and reuses its deflater and
+ * scratch arrays, so one instance per encoding thread keeps up with capture
+ * without churning the heap. Not thread-safe.
+ */
+public final class PngEncoder {
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] IHDR = {'I', 'H', 'D', 'R'};
+    private static final byte[] IDAT = {'I', 'D', 'A', 'T'};
+    private static final byte[] IEND = {'I', 'E', 'N', 'D'};
+    private static final int COLOR_TYPE_RGB = 2;
+
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final CRC32 crc = new CRC32();
+    private final byte[] compressed = new byte[64 * 1024];
+    private final byte[] header = new byte[13];
+    private final byte[] word = new byte[4];
+    private byte[] rgba = new byte[0];
+    private byte[] row = new byte[0];
+
+    /**
+     * Encodes {@code width * height} RGBA pixels starting at position 0 of
+     * {@code pixels}. The buffer's position and limit are left unchanged.
+     */
+    public void write(ByteBuffer pixels, int width, int height, OutputStream out) throws IOException {
+        if (rgba.length < width * 4) {
+            rgba = new byte[width * 4];
+            row = new byte[1 + width * 3];
+        }
+        out.write(SIGNATURE);
+
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = 8; // Bits per channel
+        header[9] = COLOR_TYPE_RGB;
+        header[10] = 0; // Deflate
+        header[11] = 0; // Adaptive filtering, each row says which filter it uses
+        header[12] = 0; // Not interlaced
+        writeChunk(out, IHDR, header, header.length);
+
+        deflater.reset();
+        int pending = 0;
+        int rowLength = 1 + width * 3;
+        row[0] = 0; // No filter: flat game colors compress well enough without one
+        for (int y = height - 1; y >= 0; y--) {
+            pixels.get(y * width * 4, rgba, 0, width * 4);
+            for (int x = 0, i = 0, o = 1; x < width; x++, i += 4, o += 3) {
+                row[o] = rgba[i];
+                row[o + 1] = rgba[i + 1];
+                row[o + 2] = rgba[i + 2];
+            }
+            deflater.setInput(row, 0, rowLength);
+            while (!deflater.needsInput()) {
+                pending = deflate(out, pending);
+            }
+        }
+        deflater.finish();
+        while (!deflater.finished()) {
+            pending = deflate(out, pending);
+        }
+        if (pending > 0) {
+            writeChunk(out, IDAT, compressed, pending);
+        }
+        writeChunk(out, IEND, compressed, 0);
+    }
+
+    /**
+     * Runs the deflater into the output array, writing an IDAT chunk whenever it fills.
+     */
+    private int deflate(OutputStream out, int pending) throws IOException {
+        pending += deflater.deflate(compressed, pending, compressed.length - pending);
+        if (pending == compressed.length) {
+            writeChunk(out, IDAT, compressed, pending);
+            return 0;
+        }
+        return pending;
+    }
+
+    private void writeChunk(OutputStream out, byte[] type, byte[] data, int length) throws IOException {
+        putInt(word, 0, length);
+        out.write(word);
+        out.write(type);
+        out.write(data, 0, length);
+        crc.reset();
+        crc.update(type);
+        crc.update(data, 0, length);
+        putInt(word, 0, (int) crc.getValue());
+        out.write(word);
+    }
+
+    private static void putInt(byte[] array, int offset, int value) {
+        array[offset] = (byte) (value >>> 24);
+        array[offset + 1] = (byte) (value >>> 16);
+        array[offset + 2] = (byte) (value >>> 8);
+        array[offset + 3] = (byte) value;
+    }
+}
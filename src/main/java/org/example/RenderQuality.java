@@ -0,0 +1,57 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Rendering quality presets. Tessellation is chosen per object from its on-screen
+ * size (see {@link LevelOfDetail}); the preset sets how much error is acceptable
+ * and which optional effects are drawn.
+ */
+public enum RenderQuality {
+    LOW(1.0f, 6, 48, 100, false, false),
+    MEDIUM(0.5f, 8, 96, 250, false, true),
+    HIGH(0.25f, 10, 192, 400, true, true),
+    ULTRA(0.1f, 12, 512, 700, true, true);
+
+    private final float maxErrorPixels;
+    private final int minSegments;
+    private final int maxSegments;
+    private final int starCount;
+    private final boolean starsAsCircles;
+    private final boolean textShadows;
+
+    RenderQuality(float maxErrorPixels, int minSegments, int maxSegments,
+                  int starCount, boolean starsAsCircles, boolean textShadows) {
+        this.maxErrorPixels = maxErrorPixels;
+        this.minSegments = minSegments;
+        this.maxSegments = maxSegments;
+        this.starCount = starCount;
+        this.starsAsCircles = starsAsCircles;
+        this.textShadows = textShadows;
+    }
+
+    /**
+     * Parses a preset name such as "low" or "ULTRA".
+     *
+     * @throws IllegalArgumentException naming the valid presets if there is no such preset
+     */
+    public static RenderQuality fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown quality '" + name + "', expected one of "
+                    + Arrays.toString(values()).toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /** Largest allowed gap in pixels between a true circle and its polygon. */
+    public float getMaxErrorPixels() { return maxErrorPixels; }
+    /** Fewest segments used for a full circle, however small it is on screen. */
+    public int getMinSegments() { return minSegments; }
+    /** Most segments used for a full circle, however large it is on screen. */
+    public int getMaxSegments() { return maxSegments; }
+    public int getStarCount() { return starCount; }
+    public boolean isStarsAsCircles() { return starsAsCircles; }
+    public boolean isTextShadows() { return textShadows; }
+}
@@ -0,0 +1,107 @@
+package org.example;
+
+import com.jogamp.opengl.GLAnimatorControl;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Switches between continuous animation and on-demand rendering.
+ *
+ * While anything moves, the animator drives {@code display()} at its frame
+ * rate. Once a frame has been drawn that stays valid until the next input
+ * (game over, paused, window hidden), {@link #sleep} pauses the animator so
+ * the process idles instead of redrawing the same image 60 times a second.
+ * The canvas still repaints itself when AWT asks (expose, resize), and any
+ * key, focus or window event calls {@link #wake}, which resumes it at once.
+ *
+ * The animator is paused and resumed on a thread of its own: from the render
+ * thread pause() can't wait for the frame in progress, and from the AWT event
+ * thread it can deadlock with the canvas. One thread also keeps every sleep
+ * and wake in the order they were asked for.
+ */
+public class RenderScheduler {
+    private final GLAnimatorControl animator;
+    private final ExecutorService control = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "render-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean enabled = true;
+    private boolean sleeping; // Control thread only
+
+    // Statistics
+    private volatile long wakeNanos;
+    private volatile long lastWakeLatencyNanos;
+    private volatile int sleeps;
+
+    public RenderScheduler(GLAnimatorControl animator) {
+        this.animator = animator;
+    }
+
+    /**
+     * Stops the animator if {@code stillIdle} is still true by the time the
+     * request is handled. Called by the render thread after drawing a frame.
+     */
+    public void sleep(BooleanSupplier stillIdle) {
+        if (!enabled) return;
+        control.execute(() -> {
+            if (sleeping || !enabled || !stillIdle.getAsBoolean()) return;
+            animator.pause();
+            sleeping = true;
+            sleeps++;
+        });
+    }
+
+    /**
+     * Resumes continuous rendering. Safe to call from any thread, as often as
+     * input arrives.
+     */
+    public void wake() {
+        control.execute(() -> {
+            if (!sleeping) return;
+            wakeNanos = System.nanoTime();
+            animator.resume();
+            sleeping = false;
+        });
+    }
+
+    /**
+     * Called by the render thread at the start of every frame, to measure how
+     * long the first frame after a wake took to arrive.
+     */
+    public void frameStarted() {
+        long wokeAt = wakeNanos;
+        if (wokeAt != 0) {
+            lastWakeLatencyNanos = System.nanoTime() - wokeAt;
+            wakeNanos = 0;
+        }
+    }
+
+    /**
+     * With on-demand rendering disabled the animator always runs, as before.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) wake();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Whether the animator is currently stopped. */
+    public boolean isSleeping() {
+        return animator.isPaused();
+    }
+
+    /** Times the animator has been put to sleep. */
+    public int getSleeps() { return sleeps; }
+    /** From the last wake() to the first frame it produced. */
+    public double getLastWakeLatencyMillis() { return lastWakeLatencyNanos / 1e6; }
+
+    public void shutdown() {
+        control.shutdownNow();
+    }
+}
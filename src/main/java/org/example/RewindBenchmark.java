@@ -0,0 +1,105 @@
+package org.example;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+
+/**
+ * Measures snapshot size and the per-tick cost of capturing and restoring
+ * {@link RewindBuffer} snapshots on a headless world.
+ *
+ * Run with {@code --rewind-bench}.
+ */
+public class RewindBenchmark {
+    private static final int TICKS_PER_SECOND = 60;
+    private static final int BUFFER_SECONDS = 5;
+    private static final int REWIND_TICKS = 3 * TICKS_PER_SECOND;
+    private static final int WARMUP_TICKS = 200_000;
+    private static final int MEASURED_TICKS = 2_000_000;
+
+    public static void run() {
+        GameWorld world = new GameWorld(42);
+        RewindBuffer buffer = new RewindBuffer(world, BUFFER_SECONDS * TICKS_PER_SECOND);
+        Random input = new Random(7);
+
+        play(world, buffer, input, WARMUP_TICKS);
+
+        long captureNanos = 0;
+        long rewindNanos = 0;
+        int rewinds = 0;
+        long entityTotal = 0;
+        for (int t = 0; t < MEASURED_TICKS; t++) {
+            step(world, buffer, input);
+            entityTotal += world.getRings().size() + world.getColorChangers().size() + world.getObstacles().getCount();
+
+            long start = System.nanoTime();
+            buffer.capture();
+            captureNanos += System.nanoTime() - start;
+
+            // Rewind once per simulated few seconds, as a practising player would
+            if (t % (REWIND_TICKS * 2) == 0) {
+                start = System.nanoTime();
+                buffer.rewind(REWIND_TICKS);
+                rewindNanos += System.nanoTime() - start;
+                rewinds++;
+            }
+        }
+
+        // Capture and restore alone, without the simulation in between
+        long allocatedBefore = allocatedBytes();
+        for (int t = 0; t < MEASURED_TICKS; t++) {
+            buffer.capture();
+            buffer.rewind(1);
+        }
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        System.out.printf("Snapshot: %d bytes reserved, %d bytes used with %d rings, %d changers and %d obstacles (%.1f entities on average)%n",
+                RewindBuffer.snapshotBytes(),
+                RewindBuffer.usedBytes(world.getRings().size(), world.getColorChangers().size(), world.getObstacles().getCount()),
+                world.getRings().size(), world.getColorChangers().size(), world.getObstacles().getCount(),
+                (double) entityTotal / MEASURED_TICKS);
+        System.out.printf("Buffer:   %d snapshots (%d s at %d Hz) = %.1f KB%n",
+                buffer.getCapacity(), BUFFER_SECONDS, TICKS_PER_SECOND,
+                buffer.getCapacity() * RewindBuffer.snapshotBytes() / 1024.0);
+        System.out.printf("Capture:  %.1f ns per tick (average over %d ticks)%n",
+                (double) captureNanos / MEASURED_TICKS, MEASURED_TICKS);
+        System.out.printf("Rewind:   %.1f ns per restore (%d restores of %d ticks)%n",
+                (double) rewindNanos / Math.max(1, rewinds), rewinds, REWIND_TICKS);
+        if (allocated >= 0) {
+            System.out.printf("Heap allocated by %d capture/rewind pairs: %d bytes%n",
+                    MEASURED_TICKS, allocated);
+        }
+    }
+
+    private static void play(GameWorld world, RewindBuffer buffer, Random input, int ticks) {
+        for (int t = 0; t < ticks; t++) {
+            step(world, buffer, input);
+            buffer.capture();
+            if (t % (REWIND_TICKS * 2) == 0) {
+                buffer.rewind(REWIND_TICKS);
+            }
+        }
+    }
+
+    private static void step(GameWorld world, RewindBuffer buffer, Random input) {
+        if (world.isGameOver()) {
+            world.reset();
+            buffer.clear();
+        }
+        if (input.nextInt(16) == 0) {
+            world.jump();
+        }
+        world.update(1f);
+    }
+
+    /**
+     * Heap bytes allocated by this thread so far, or -1 if the JVM can't tell.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,222 @@
+package org.example;
+
+import java.util.List;
+
+/**
+ * Ring buffer of compact world snapshots for practice-mode rewind.
+ *
+ * Snapshots live in preallocated primitive arrays with a fixed stride, so
+ * capturing one every tick and restoring any of them is a plain copy of
+ * O(entities) values with no allocation. The world's random number generator is
+ * not captured; rings spawned after a rewind may differ from the first attempt.
+ */
+public class RewindBuffer {
+    public static final int MAX_RINGS = 16;
+    public static final int MAX_CHANGERS = 16;
+    public static final int MAX_OBSTACLES = 8;
+
+    // Float layout: ball y, ball velocity, camera offset, then rings, changers and field obstacles
+    private static final int F_BALL_Y = 0;
+    private static final int F_BALL_VELOCITY = 1;
+    private static final int F_CAMERA = 2;
+    private static final int F_CLOCK = 3;
+    private static final int F_RINGS = 4;
+    private static final int RING_FLOATS = 4; // y, inner radius, outer radius, rotation speed (angle is a double)
+    private static final int F_CHANGERS = F_RINGS + MAX_RINGS * RING_FLOATS;
+    private static final int CHANGER_FLOATS = 3; // x, y, radius
+    private static final int F_OBSTACLES = F_CHANGERS + MAX_CHANGERS * CHANGER_FLOATS;
+    private static final int OBSTACLE_FLOATS = 5; // y, scale, spin, angle, shift
+    private static final int FLOAT_STRIDE = F_OBSTACLES + MAX_OBSTACLES * OBSTACLE_FLOATS;
+
+    // Int layout: counters and flags, then one color per changer, then one catalog id per obstacle
+    private static final int I_SCORE = 0;
+    private static final int I_SESSION = 1;
+    private static final int I_TICK = 2;
+    private static final int I_GAME_OVER = 3;
+    private static final int I_BALL_COLOR = 4;
+    private static final int I_RING_COUNT = 5;
+    private static final int I_CHANGER_COUNT = 6;
+    private static final int I_PASSED = 7; // One bit per ring
+    private static final int I_OBSTACLE_COUNT = 8;
+    private static final int I_OBSTACLES_PASSED = 9; // One bit per obstacle
+    private static final int I_ENTRY_COLOR = 10;
+    private static final int I_CHANGER_COLORS = 11;
+    private static final int I_OBSTACLE_IDS = I_CHANGER_COLORS + MAX_CHANGERS;
+    private static final int INT_STRIDE = I_OBSTACLE_IDS + MAX_OBSTACLES;
+
+    private final GameWorld world;
+    private final int capacity;
+    private final float[] floats;
+    private final int[] ints;
+    private final double[] ringAngles; // MAX_RINGS per snapshot, kept at full precision for the swept test
+    private int newest = -1;
+    private int count;
+
+    /**
+     * @param world the world to capture and restore
+     * @param capacity number of snapshots kept (one per tick)
+     */
+    public RewindBuffer(GameWorld world, int capacity) {
+        this.world = world;
+        this.capacity = capacity;
+        this.floats = new float[capacity * FLOAT_STRIDE];
+        this.ints = new int[capacity * INT_STRIDE];
+        this.ringAngles = new double[capacity * MAX_RINGS];
+        world.reserveEntities(MAX_RINGS, MAX_CHANGERS);
+        world.getObstacles().reserve(MAX_OBSTACLES, MAX_OBSTACLES * ObstacleCatalog.maxPartCount());
+    }
+
+    /**
+     * Stores the world's current state, overwriting the oldest snapshot when full.
+     */
+    public void capture() {
+        List<Ring> rings = world.getRings();
+        List<ColorChanger> changers = world.getColorChangers();
+        ObstacleField obstacles = world.getObstacles();
+        if (rings.size() > MAX_RINGS || changers.size() > MAX_CHANGERS || obstacles.getCount() > MAX_OBSTACLES) {
+            throw new IllegalStateException("World has more entities than a snapshot holds: "
+                    + rings.size() + " rings, " + changers.size() + " changers, "
+                    + obstacles.getCount() + " obstacles");
+        }
+        // Restoring recompiles obstacles by catalog id, so unregistered definitions can't be kept
+        for (int o = 0; o < obstacles.getCount(); o++) {
+            if (obstacles.getDef(o).getId() < 0) {
+                throw new IllegalStateException("Obstacle '" + obstacles.getDef(o).getName() + "' isn't in the catalog");
+            }
+        }
+
+        newest = (newest + 1) % capacity;
+        count = Math.min(count + 1, capacity);
+        int f = newest * FLOAT_STRIDE;
+        int i = newest * INT_STRIDE;
+
+        PlayerBall ball = world.getPlayerBall();
+        floats[f + F_BALL_Y] = ball.getY();
+        floats[f + F_BALL_VELOCITY] = ball.getVelocityY();
+        floats[f + F_CAMERA] = world.getCameraOffsetY();
+        floats[f + F_CLOCK] = world.getClock();
+        ints[i + I_SCORE] = world.getScore();
+        ints[i + I_SESSION] = world.getSession();
+        ints[i + I_TICK] = world.getTick();
+        ints[i + I_GAME_OVER] = world.isGameOver() ? 1 : 0;
+        ints[i + I_BALL_COLOR] = ball.getColorIndex();
+        ints[i + I_RING_COUNT] = rings.size();
+        ints[i + I_CHANGER_COUNT] = changers.size();
+        ints[i + I_ENTRY_COLOR] = world.getEntryColor();
+
+        int passed = 0;
+        for (int r = 0; r < rings.size(); r++) {
+            Ring ring = rings.get(r);
+            int at = f + F_RINGS + r * RING_FLOATS;
+            floats[at] = ring.getY();
+            floats[at + 1] = ring.getInnerRadius();
+            floats[at + 2] = ring.getOuterRadius();
+            floats[at + 3] = ring.getRotationSpeed();
+            ringAngles[newest * MAX_RINGS + r] = ring.getCurrentAngle();
+            if (ring.isPassed()) passed |= 1 << r;
+        }
+        ints[i + I_PASSED] = passed;
+
+        for (int c = 0; c < changers.size(); c++) {
+            ColorChanger changer = changers.get(c);
+            int at = f + F_CHANGERS + c * CHANGER_FLOATS;
+            floats[at] = changer.getX();
+            floats[at + 1] = changer.getY();
+            floats[at + 2] = changer.getRadius();
+            ints[i + I_CHANGER_COLORS + c] = changer.getColorIndex();
+        }
+
+        // Obstacles are recompiled from the catalog on restore, so only their motion is stored
+        ints[i + I_OBSTACLE_COUNT] = obstacles.getCount();
+        passed = 0;
+        for (int o = 0; o < obstacles.getCount(); o++) {
+            int at = f + F_OBSTACLES + o * OBSTACLE_FLOATS;
+            floats[at] = obstacles.getY(o);
+            floats[at + 1] = obstacles.getScale(o);
+            floats[at + 2] = obstacles.getSpin(o);
+            floats[at + 3] = obstacles.getAngle(o);
+            floats[at + 4] = obstacles.getShift(o);
+            ints[i + I_OBSTACLE_IDS + o] = obstacles.getDef(o).getId();
+            if (obstacles.isPassed(o)) passed |= 1 << o;
+        }
+        ints[i + I_OBSTACLES_PASSED] = passed;
+    }
+
+    /**
+     * Restores the snapshot taken the given number of ticks ago (0 = latest) and
+     * drops every newer one, so play continues from there.
+     *
+     * @return how many ticks were actually rewound, or -1 if the buffer is empty
+     */
+    public int rewind(int ticksBack) {
+        if (count == 0) return -1;
+        int back = Math.min(ticksBack, count - 1);
+        newest = (newest - back + capacity) % capacity;
+        count -= back;
+
+        int f = newest * FLOAT_STRIDE;
+        int i = newest * INT_STRIDE;
+        int ringCount = ints[i + I_RING_COUNT];
+        int changerCount = ints[i + I_CHANGER_COUNT];
+        world.resizeEntities(ringCount, changerCount);
+
+        PlayerBall ball = world.getPlayerBall();
+        ball.setY(floats[f + F_BALL_Y]);
+        ball.setVelocityY(floats[f + F_BALL_VELOCITY]);
+        ball.setColor(ints[i + I_BALL_COLOR]);
+        world.restoreState(ints[i + I_SCORE], ints[i + I_SESSION], ints[i + I_TICK], floats[f + F_CLOCK],
+                ints[i + I_GAME_OVER] != 0, floats[f + F_CAMERA], ints[i + I_ENTRY_COLOR]);
+
+        List<Ring> rings = world.getRings();
+        int passed = ints[i + I_PASSED];
+        for (int r = 0; r < ringCount; r++) {
+            int at = f + F_RINGS + r * RING_FLOATS;
+            rings.get(r).set(floats[at], floats[at + 1], floats[at + 2], floats[at + 3], ringAngles[newest * MAX_RINGS + r],
+                    (passed & (1 << r)) != 0);
+        }
+
+        List<ColorChanger> changers = world.getColorChangers();
+        for (int c = 0; c < changerCount; c++) {
+            int at = f + F_CHANGERS + c * CHANGER_FLOATS;
+            changers.get(c).set(floats[at], floats[at + 1], floats[at + 2], ints[i + I_CHANGER_COLORS + c]);
+        }
+
+        ObstacleField obstacles = world.getObstacles();
+        obstacles.clear();
+        passed = ints[i + I_OBSTACLES_PASSED];
+        for (int o = 0; o < ints[i + I_OBSTACLE_COUNT]; o++) {
+            int at = f + F_OBSTACLES + o * OBSTACLE_FLOATS;
+            obstacles.add(ObstacleCatalog.byId(ints[i + I_OBSTACLE_IDS + o]), floats[at], floats[at + 1], floats[at + 2]);
+            obstacles.setMotion(o, floats[at + 3], floats[at + 4], (passed & (1 << o)) != 0);
+        }
+        return back;
+    }
+
+    public void clear() {
+        newest = -1;
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Bytes reserved per snapshot.
+     */
+    public static int snapshotBytes() {
+        return (FLOAT_STRIDE + INT_STRIDE) * 4 + MAX_RINGS * Double.BYTES;
+    }
+
+    /**
+     * Bytes of the snapshot actually holding data for the given entity counts.
+     */
+    public static int usedBytes(int ringCount, int changerCount, int obstacleCount) {
+        return (F_RINGS + ringCount * RING_FLOATS + changerCount * CHANGER_FLOATS + obstacleCount * OBSTACLE_FLOATS
+                + I_CHANGER_COLORS + changerCount + obstacleCount) * 4 + ringCount * Double.BYTES;
+    }
+}
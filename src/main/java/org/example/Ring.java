@@ -6,15 +6,11 @@ public class Ring {
     private float y;
     private float innerRadius, outerRadius;
     private float rotationSpeed;
-    private float currentAngle = 0;
+    private double currentAngle = 0; // double so many small sub-steps don't drift
     private boolean passed = false;
 
-    private static final float[][] COLORS = {
-            {0.0f, 1.0f, 1.0f}, // Cyan
-            {1.0f, 1.0f, 0.0f}, // Yellow
-            {1.0f, 0.0f, 1.0f}, // Magenta
-            {0.5f, 0.0f, 1.0f}  // Purple
-    };
+    private static final int SEGMENT_COUNT = Palette.COUNT;
+    private static final float SEGMENT_ANGLE = 360f / SEGMENT_COUNT;
 
     public Ring(float y, float innerRadius, float outerRadius, float rotationSpeed) {
         this.y = y;
@@ -23,20 +19,36 @@ public class Ring {
         this.rotationSpeed = rotationSpeed;
     }
 
+    /**
+     * Reinitialize this ring in place (used when recycling).
+     */
+    public void set(float y, float innerRadius, float outerRadius, float rotationSpeed, double angle, boolean passed) {
+        this.y = y;
+        this.innerRadius = innerRadius;
+        this.outerRadius = outerRadius;
+        this.rotationSpeed = rotationSpeed;
+        this.currentAngle = angle;
+        this.passed = passed;
+    }
+
     public void update() {
-        currentAngle += rotationSpeed;
-        if (currentAngle > 360) currentAngle -= 360;
+        update(1f);
+    }
+
+    public void update(float dt) {
+        currentAngle = (currentAngle + rotationSpeed * dt) % 360;
         if (currentAngle < 0) currentAngle += 360;
     }
 
-    public void draw(GL2 gl) {
+    public void draw(GL2 gl, LevelOfDetail lod) {
         gl.glPushMatrix();
         gl.glTranslatef(0, y, 0);
-        gl.glRotatef(currentAngle, 0, 0, 1);
+        gl.glRotatef((float) currentAngle, 0, 0, 1);
 
-        for (int i = 0; i < 4; i++) {
-            gl.glColor3fv(COLORS[i], 0);
-            drawArc(gl, 0, 0, innerRadius, outerRadius, i * 90, (i + 1) * 90, 16);
+        int segments = lod.arcSegments(outerRadius, SEGMENT_ANGLE);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            gl.glColor3fv(Palette.COLORS[i], 0);
+            drawArc(gl, 0, 0, innerRadius, outerRadius, i * SEGMENT_ANGLE, (i + 1) * SEGMENT_ANGLE, segments);
         }
 
         gl.glPopMatrix();
@@ -65,20 +77,17 @@ public class Ring {
         // Adjust for ring's rotation
         angle = (angle - currentAngle + 360) % 360;
 
-        if (angle >= 0 && angle < 90) return 0;       // First segment (e.g., Cyan)
-        if (angle >= 90 && angle < 180) return 1;     // Second (e.g., Yellow)
-        if (angle >= 180 && angle < 270) return 2;    // Third (e.g., Magenta)
-        if (angle >= 270 && angle < 360) return 3;    // Fourth (e.g., Purple)
-
-        return -1; // Should not happen
+        // Segment i covers [i * 90, (i + 1) * 90) and has color i
+        return Math.min(SEGMENT_COUNT - 1, (int) (angle / SEGMENT_ANGLE));
     }
 
-
     // Getters and Setters
     public float getY() { return y; }
     public void setY(float y) { this.y = y; }
     public float getInnerRadius() { return innerRadius; }
     public float getOuterRadius() { return outerRadius; }
+    public float getRotationSpeed() { return rotationSpeed; }
+    public double getCurrentAngle() { return currentAngle; }
     public boolean isPassed() { return passed; }
     public void setPassed(boolean passed) { this.passed = passed; }
 }
@@ -15,6 +15,7 @@ public class ScoreUI {
     private int windowWidth;
     private int windowHeight;
     private float uiAlpha = 0f; // For fade-in animation
+    private boolean shadows = true;
     private static final float FADE_SPEED = 0.02f;
 
     public ScoreUI() {
@@ -34,6 +35,13 @@ public class ScoreUI {
         this.windowHeight = height;
     }
 
+    /**
+     * Enable or disable the drop shadows behind text.
+     */
+    public void setShadows(boolean shadows) {
+        this.shadows = shadows;
+    }
+
     /**
      * Reset the fade-in animation.
      */
@@ -56,6 +64,18 @@ public class ScoreUI {
     public void draw(GL2 gl, int currentScore, int highScore) {
         if (windowWidth == 0 || windowHeight == 0) return;
 
+        GameEvents.ScoreDraw event = new GameEvents.ScoreDraw();
+        event.begin();
+        drawScores(gl, currentScore, highScore);
+        event.end();
+        if (event.shouldCommit()) {
+            event.score = currentScore;
+            event.highScore = highScore;
+            event.commit();
+        }
+    }
+
+    private void drawScores(GL2 gl, int currentScore, int highScore) {
         // Enable blending for transparency
         gl.glEnable(GL2.GL_BLEND);
         gl.glBlendFunc(GL2.GL_SRC_ALPHA, GL2.GL_ONE_MINUS_SRC_ALPHA);
@@ -98,8 +118,10 @@ public class ScoreUI {
         scoreRenderer.beginRendering(windowWidth, windowHeight);
 
         // Draw shadow (offset by 3 pixels, darker)
-        scoreRenderer.setColor(0f, 0f, 0f, 0.5f * uiAlpha);
-        scoreRenderer.draw(scoreText, x + 3, y - 3);
+        if (shadows) {
+            scoreRenderer.setColor(0f, 0f, 0f, 0.5f * uiAlpha);
+            scoreRenderer.draw(scoreText, x + 3, y - 3);
+        }
 
         // Draw main score text (white with transparency)
         scoreRenderer.setColor(1f, 1f, 1f, 0.85f * uiAlpha);
@@ -122,8 +144,10 @@ public class ScoreUI {
         highScoreRenderer.beginRendering(windowWidth, windowHeight);
 
         // Draw shadow
-        highScoreRenderer.setColor(0f, 0f, 0f, 0.4f * uiAlpha);
-        highScoreRenderer.draw(highScoreText, x + 2, y - 2);
+        if (shadows) {
+            highScoreRenderer.setColor(0f, 0f, 0f, 0.4f * uiAlpha);
+            highScoreRenderer.draw(highScoreText, x + 2, y - 2);
+        }
 
         // Draw main high score text (lighter and more transparent)
         highScoreRenderer.setColor(1f, 1f, 1f, 0.65f * uiAlpha);
@@ -136,6 +160,20 @@ public class ScoreUI {
      * Draw game over text.
      */
     public void drawGameOver(GL2 gl) {
+        drawBanner(gl, "GAME OVER", "Press SPACE to restart", 1f, 0.3f, 0.3f);
+    }
+
+    /**
+     * Draw paused text.
+     */
+    public void drawPaused(GL2 gl) {
+        drawBanner(gl, "PAUSED", "Press SPACE or P to resume", 1f, 1f, 1f);
+    }
+
+    /**
+     * Draw a large centered title in the given color with a smaller white line below it.
+     */
+    private void drawBanner(GL2 gl, String title, String subtitle, float r, float g, float b) {
         if (windowWidth == 0 || windowHeight == 0) return;
 
         gl.glEnable(GL2.GL_BLEND);
@@ -149,38 +187,38 @@ public class ScoreUI {
         gl.glPushMatrix();
         gl.glLoadIdentity();
 
-        String gameOverText = "GAME OVER";
-        String restartText = "Press SPACE to restart";
-
-        // Game Over text (center of screen)
-        Rectangle2D bounds = scoreRenderer.getBounds(gameOverText);
+        // Title (center of screen)
+        Rectangle2D bounds = scoreRenderer.getBounds(title);
         int x = (int) ((windowWidth - bounds.getWidth()) / 2);
         int y = windowHeight / 2 + 30;
 
         scoreRenderer.beginRendering(windowWidth, windowHeight);
 
         // Shadow
-        scoreRenderer.setColor(0f, 0f, 0f, 0.6f);
-        scoreRenderer.draw(gameOverText, x + 3, y - 3);
+        if (shadows) {
+            scoreRenderer.setColor(0f, 0f, 0f, 0.6f);
+            scoreRenderer.draw(title, x + 3, y - 3);
+        }
 
-        // Main text (red tint)
-        scoreRenderer.setColor(1f, 0.3f, 0.3f, 0.9f);
-        scoreRenderer.draw(gameOverText, x, y);
+        scoreRenderer.setColor(r, g, b, 0.9f);
+        scoreRenderer.draw(title, x, y);
 
         scoreRenderer.endRendering();
 
-        // Restart instruction
-        Rectangle2D restartBounds = highScoreRenderer.getBounds(restartText);
-        int restartX = (int) ((windowWidth - restartBounds.getWidth()) / 2);
-        int restartY = windowHeight / 2 - 40;
+        // Instruction
+        Rectangle2D subtitleBounds = highScoreRenderer.getBounds(subtitle);
+        int subtitleX = (int) ((windowWidth - subtitleBounds.getWidth()) / 2);
+        int subtitleY = windowHeight / 2 - 40;
 
         highScoreRenderer.beginRendering(windowWidth, windowHeight);
 
-        highScoreRenderer.setColor(0f, 0f, 0f, 0.5f);
-        highScoreRenderer.draw(restartText, restartX + 2, restartY - 2);
+        if (shadows) {
+            highScoreRenderer.setColor(0f, 0f, 0f, 0.5f);
+            highScoreRenderer.draw(subtitle, subtitleX + 2, subtitleY - 2);
+        }
 
         highScoreRenderer.setColor(1f, 1f, 1f, 0.7f);
-        highScoreRenderer.draw(restartText, restartX, restartY);
+        highScoreRenderer.draw(subtitle, subtitleX, subtitleY);
 
         highScoreRenderer.endRendering();
 
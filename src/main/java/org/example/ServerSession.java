@@ -0,0 +1,88 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One connected client's game: a headless {@link GameWorld} ticked by a
+ * {@link GameServer} shard, with the client's pending input and the state
+ * stream going back to it.
+ *
+ * Input arrives on the server's selector thread; everything else happens on
+ * the session's shard thread.
+ */
+public class ServerSession {
+    /** Outgoing bytes per session. A client this far behind has snapshots skipped. */
+    public static final int OUT_BUFFER_SIZE = 8 * 1024;
+
+    private final SocketChannel channel;
+    private final GameWorld world;
+    private final StateCodec.Encoder encoder = new StateCodec.Encoder();
+    private final ByteBuffer out = ByteBuffer.allocateDirect(OUT_BUFFER_SIZE);
+    private int[] snapshot = new int[64];
+    private volatile boolean jumpRequested;
+    private volatile boolean closed;
+
+    // Server-wide statistics
+    private final LongAdder bytesSent;
+    private final LongAdder snapshotsSkipped;
+
+    public ServerSession(SocketChannel channel, long seed, LongAdder bytesSent, LongAdder snapshotsSkipped) {
+        this.channel = channel;
+        this.world = new GameWorld(seed);
+        this.bytesSent = bytesSent;
+        this.snapshotsSkipped = snapshotsSkipped;
+    }
+
+    /**
+     * Queues a jump (or a restart after game over) for the next tick.
+     */
+    public void requestJump() {
+        jumpRequested = true;
+    }
+
+    /**
+     * Advances the game one frame and sends the new state.
+     */
+    void tick() throws IOException {
+        if (jumpRequested) {
+            jumpRequested = false;
+            if (world.isGameOver()) {
+                world.reset();
+            } else {
+                world.jump();
+            }
+        }
+        world.update(1f);
+
+        snapshot = StateCodec.capture(world, snapshot);
+        if (!encoder.isUnchanged(snapshot) && !encoder.encode(snapshot, out)) {
+            snapshotsSkipped.increment(); // The client isn't reading; it gets the next one that fits
+        }
+        flush();
+    }
+
+    /**
+     * Writes as much of the outgoing buffer as the socket takes without blocking.
+     */
+    private void flush() throws IOException {
+        if (out.position() == 0) return;
+        out.flip();
+        bytesSent.add(channel.write(out));
+        out.compact();
+    }
+
+    void close() {
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Already gone
+        }
+    }
+
+    public boolean isClosed() { return closed; }
+    public GameWorld getWorld() { return world; }
+}
@@ -0,0 +1,116 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link LayoutSolver} throughput and latency, sequentially and on
+ * every core, reports how often each obstacle type is unsolvable, and feeds a
+ * {@link LayoutPipeline} at faster than the game's highest spawn rate to show
+ * whether spawning ever waits for it.
+ *
+ * Run with {@code --solver-bench [layouts]} (default 2000).
+ */
+public class SolverBenchmark {
+    /** Shortest time between spawns: one ring spacing at the ball's top speed. */
+    private static final double MIN_SPAWN_INTERVAL_MS =
+            GameWorld.BASE_RING_SPACING / GameWorld.JUMP_VELOCITY * 1000 / 60;
+    private static final int PIPELINE_SPAWNS = 200;
+    private static final int PIPELINE_SPEEDUP = 10;
+    private static final long PREFILL_TIMEOUT_SECONDS = 60;
+
+    public static void run(int layouts) throws InterruptedException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("Layout solver: %d layouts, %d phases x %d colors each, jumps every %d frames, horizon %d frames%n",
+                layouts, LayoutSolver.PHASES, Palette.COUNT, LayoutSolver.DECISION_FRAMES, LayoutSolver.HORIZON_FRAMES);
+
+        Layout[] candidates = new Layout[layouts];
+        Random random = new Random(42);
+        for (int i = 0; i < layouts; i++) {
+            candidates[i] = Layout.roll(random, true);
+        }
+
+        int[] colors = null;
+        for (int parallelism : cores > 1 ? new int[]{1, cores} : new int[]{1}) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            LayoutSolver solver = new LayoutSolver(pool);
+            for (int i = 0; i < Math.min(layouts, 200); i++) {
+                solver.solvableColors(candidates[i]); // Warm up
+            }
+
+            long[] latencies = new long[layouts];
+            colors = new int[layouts];
+            long start = System.nanoTime();
+            for (int i = 0; i < layouts; i++) {
+                long t0 = System.nanoTime();
+                colors[i] = solver.solvableColors(candidates[i]);
+                latencies[i] = System.nanoTime() - t0;
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            pool.shutdown();
+
+            Arrays.sort(latencies);
+            System.out.printf("%n%d thread%s: %.0f checks/s (layout x color), %.0f layouts/s%n",
+                    parallelism, parallelism == 1 ? "" : "s", layouts * Palette.COUNT / seconds, layouts / seconds);
+            System.out.printf("  latency per layout ms: p50 %.2f, p99 %.2f, max %.2f (spawns are at least %.0f ms apart)%n",
+                    latencies[layouts / 2] / 1e6, latencies[(int) (layouts * 0.99)] / 1e6,
+                    latencies[layouts - 1] / 1e6, MIN_SPAWN_INTERVAL_MS);
+        }
+
+        // Per obstacle type: how many (layout, color) pairs have no path
+        Map<String, int[]> byType = new LinkedHashMap<>();
+        for (int i = 0; i < layouts; i++) {
+            int[] counts = byType.computeIfAbsent(candidates[i].getName(), name -> new int[3]);
+            counts[0]++;
+            counts[1] += Palette.COUNT - Integer.bitCount(colors[i]);
+            if (colors[i] == 0) counts[2]++;
+        }
+        System.out.printf("%n%-14s %8s %18s %14s%n", "type", "layouts", "unsolvable colors", "no color at all");
+        for (Map.Entry<String, int[]> entry : byType.entrySet()) {
+            int[] counts = entry.getValue();
+            System.out.printf("%-14s %8d %17.1f%% %13.1f%%%n", entry.getKey(), counts[0],
+                    100.0 * counts[1] / (counts[0] * Palette.COUNT), 100.0 * counts[2] / counts[0]);
+        }
+
+        runPipeline(cores);
+    }
+
+    /**
+     * Takes layouts from a pipeline {@link #PIPELINE_SPEEDUP} times faster than
+     * the game ever spawns, with a random entry color each time.
+     */
+    private static void runPipeline(int cores) throws InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, cores - 1));
+        long created = System.nanoTime();
+        LayoutPipeline pipeline = new LayoutPipeline(new LayoutSolver(pool));
+        double constructMillis = (System.nanoTime() - created) / 1e6;
+        // Measure steady state: the game itself takes fallback rings until the queues fill
+        boolean prefilled = pipeline.awaitFilled(PREFILL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        double prefillMillis = (System.nanoTime() - created) / 1e6;
+        Random random = new Random(7);
+        long intervalMillis = Math.round(MIN_SPAWN_INTERVAL_MS / PIPELINE_SPEEDUP);
+
+        long worstTake = 0;
+        for (int i = 0; i < PIPELINE_SPAWNS; i++) {
+            long start = System.nanoTime();
+            pipeline.take(random.nextInt(Palette.COUNT), i % 4 != 0);
+            worstTake = Math.max(worstTake, System.nanoTime() - start);
+            Thread.sleep(intervalMillis);
+        }
+        pipeline.shutdown();
+        pool.shutdown();
+
+        System.out.printf("%nPipeline (%d solver thread%s, %d spawns every %d ms, %dx the fastest spawn rate):%n",
+                pool.getParallelism(), pool.getParallelism() == 1 ? "" : "s", PIPELINE_SPAWNS, intervalMillis, PIPELINE_SPEEDUP);
+        System.out.printf("  constructor returned in %.1f ms; queues %s %.0f ms before the first take; %d layouts checked,"
+                        + " %.1f%% of color checks unsolvable and re-rolled%n",
+                constructMillis, prefilled ? "filled in" : "still not full after", prefillMillis, pipeline.getCandidates(),
+                100.0 * pipeline.getUnsolvableChecks() / Math.max(1, pipeline.getCandidates() * Palette.COUNT));
+        System.out.printf("  check ms: mean %.2f, max %.2f; slowest take() %.3f ms; stalls %d%n",
+                pipeline.getAverageSolveMillis(), pipeline.getMaxSolveMillis(), worstTake / 1e6, pipeline.getStalls());
+    }
+}
@@ -0,0 +1,343 @@
+package org.example;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Wire format for streaming a {@link GameWorld} to network clients.
+ *
+ * A world is flattened into a snapshot of quantized ints: a fixed header
+ * (tick, score, ball, camera, entity counts) followed by each ring, color
+ * changer and obstacle. Most values either stay put or move at a constant
+ * rate from tick to tick, so each snapshot is sent as its difference from a
+ * linear prediction off the previous two sent, with a bit mask of the
+ * fields the prediction got wrong and a zigzag varint for each of them. A
+ * keyframe (every value in full) is sent first and whenever the entity
+ * counts change.
+ *
+ * Messages are a varint payload length, a type byte, then the payload. The
+ * encoder and decoder keep the same two snapshots of history. A server that
+ * skips a snapshot for a slow client just encodes the next one against the
+ * last two it did send, so nothing needs resynchronizing.
+ */
+public final class StateCodec {
+    public static final byte KEYFRAME = 0;
+    public static final byte DELTA = 1;
+
+    /** Client to server: jump, or restart after game over. */
+    public static final byte INPUT_JUMP = 1;
+
+    // Header layout
+    public static final int TICK = 0;
+    public static final int SESSION = 1;
+    public static final int SCORE = 2;
+    public static final int FLAGS = 3; // Bit 0 game over, bits 1+ ball color
+    public static final int BALL_Y = 4;
+    public static final int BALL_VELOCITY = 5;
+    public static final int CAMERA = 6;
+    public static final int RING_COUNT = 7;
+    public static final int CHANGER_COUNT = 8;
+    public static final int OBSTACLE_COUNT = 9;
+    public static final int HEADER_SIZE = 10;
+
+    // Fields per entity, after the header in this order
+    public static final int RING_FIELDS = 4; // y, angle, inner radius, outer radius
+    public static final int CHANGER_FIELDS = 2; // y, color
+    public static final int OBSTACLE_FIELDS = 5; // catalog id, y, angle, shift, scale
+
+    /** Positions and sizes are sent in hundredths of a unit. */
+    public static final float POSITION_SCALE = 100f;
+    /** Angles in tenths of a degree. */
+    public static final float ANGLE_SCALE = 10f;
+    /** Velocities in thousandths of a unit per frame. */
+    public static final float VELOCITY_SCALE = 1000f;
+
+    private StateCodec() {
+    }
+
+    /**
+     * Flattens the world into {@code snapshot}, growing it if needed.
+     *
+     * @return the snapshot array, which may be a new one
+     */
+    public static int[] capture(GameWorld world, int[] snapshot) {
+        List<Ring> rings = world.getRings();
+        List<ColorChanger> changers = world.getColorChangers();
+        ObstacleField obstacles = world.getObstacles();
+        int length = HEADER_SIZE + rings.size() * RING_FIELDS + changers.size() * CHANGER_FIELDS
+                + obstacles.getCount() * OBSTACLE_FIELDS;
+        if (snapshot.length < length) {
+            snapshot = Arrays.copyOf(snapshot, Math.max(length, snapshot.length * 2));
+        }
+
+        PlayerBall ball = world.getPlayerBall();
+        snapshot[TICK] = world.getTick();
+        snapshot[SESSION] = world.getSession();
+        snapshot[SCORE] = world.getScore();
+        snapshot[FLAGS] = (world.isGameOver() ? 1 : 0) | ball.getColorIndex() << 1;
+        snapshot[BALL_Y] = Math.round(ball.getY() * POSITION_SCALE);
+        snapshot[BALL_VELOCITY] = Math.round(ball.getVelocityY() * VELOCITY_SCALE);
+        snapshot[CAMERA] = Math.round(world.getCameraOffsetY() * POSITION_SCALE);
+        snapshot[RING_COUNT] = rings.size();
+        snapshot[CHANGER_COUNT] = changers.size();
+        snapshot[OBSTACLE_COUNT] = obstacles.getCount();
+
+        int i = HEADER_SIZE;
+        for (Ring ring : rings) {
+            snapshot[i++] = Math.round(ring.getY() * POSITION_SCALE);
+            snapshot[i++] = (int) Math.round(ring.getCurrentAngle() * ANGLE_SCALE);
+            snapshot[i++] = Math.round(ring.getInnerRadius() * POSITION_SCALE);
+            snapshot[i++] = Math.round(ring.getOuterRadius() * POSITION_SCALE);
+        }
+        for (ColorChanger changer : changers) {
+            snapshot[i++] = Math.round(changer.getY() * POSITION_SCALE);
+            snapshot[i++] = changer.getColorIndex();
+        }
+        for (int o = 0; o < obstacles.getCount(); o++) {
+            snapshot[i++] = obstacles.getDef(o).getId();
+            snapshot[i++] = Math.round(obstacles.getY(o) * POSITION_SCALE);
+            snapshot[i++] = Math.round(obstacles.getAngle(o) * ANGLE_SCALE);
+            snapshot[i++] = Math.round(obstacles.getShift(o) * POSITION_SCALE);
+            snapshot[i++] = Math.round(obstacles.getScale(o) * POSITION_SCALE);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Number of ints in a snapshot, from its header.
+     */
+    public static int length(int[] snapshot) {
+        return HEADER_SIZE + snapshot[RING_COUNT] * RING_FIELDS + snapshot[CHANGER_COUNT] * CHANGER_FIELDS
+                + snapshot[OBSTACLE_COUNT] * OBSTACLE_FIELDS;
+    }
+
+    static boolean sameCounts(int[] a, int[] b) {
+        return a[RING_COUNT] == b[RING_COUNT] && a[CHANGER_COUNT] == b[CHANGER_COUNT]
+                && a[OBSTACLE_COUNT] == b[OBSTACLE_COUNT];
+    }
+
+    /**
+     * Snapshot history shared by the encoder and decoder: the last two
+     * snapshots sent, and the prediction made from them.
+     */
+    private static class History {
+        int[] last = new int[64];
+        int[] beforeLast = new int[64];
+        int lastLength = -1; // -1 until a keyframe
+        int beforeLastLength = -1;
+        boolean linear; // The last two snapshots have the same entity counts
+
+        /**
+         * The value expected at index i: constant motion if the previous two
+         * snapshots line up, otherwise unchanged.
+         */
+        int predict(int i) {
+            return linear ? 2 * last[i] - beforeLast[i] : last[i];
+        }
+
+        /**
+         * Whether a snapshot has the same entity counts as the last one, so
+         * their fields line up one to one.
+         */
+        boolean sameCountsAsLast(int[] snapshot) {
+            return lastLength >= 0 && sameCounts(snapshot, last);
+        }
+
+        void push(int[] snapshot, int length) {
+            int[] recycled = beforeLast;
+            beforeLast = last;
+            beforeLastLength = lastLength;
+            if (recycled.length < length) {
+                recycled = new int[Math.max(length, recycled.length * 2)];
+            }
+            System.arraycopy(snapshot, 0, recycled, 0, length);
+            last = recycled;
+            lastLength = length;
+            linear = beforeLastLength >= 0 && sameCounts(last, beforeLast);
+        }
+    }
+
+    /**
+     * Encodes one session's snapshots. Not thread-safe.
+     */
+    public static final class Encoder extends History {
+        /**
+         * Whether the snapshot is identical to the last one sent, so nothing
+         * needs to go out.
+         */
+        public boolean isUnchanged(int[] snapshot) {
+            int length = length(snapshot);
+            if (length != lastLength) return false;
+            for (int i = 0; i < length; i++) {
+                if (snapshot[i] != last[i]) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Writes the message for {@code snapshot} to {@code out}.
+         *
+         * @return false, leaving {@code out} and the history unchanged, if it doesn't fit
+         */
+        public boolean encode(int[] snapshot, ByteBuffer out) {
+            int length = length(snapshot);
+            int start = out.position();
+            // Payload length is patched in once known; reserve the most a varint of it could need
+            int payloadStart = start + 3;
+            if (out.remaining() < 4) return false;
+            out.position(payloadStart);
+
+            boolean keyframe = !sameCountsAsLast(snapshot);
+            try {
+                if (keyframe) {
+                    out.put(KEYFRAME);
+                    putVarint(out, length);
+                    for (int i = 0; i < length; i++) {
+                        putVarint(out, zigzag(snapshot[i]));
+                    }
+                } else {
+                    out.put(DELTA);
+                    int maskStart = out.position();
+                    int maskBytes = (length + 7) >>> 3;
+                    for (int b = 0; b < maskBytes; b++) {
+                        out.put((byte) 0);
+                    }
+                    for (int i = 0; i < length; i++) {
+                        int residual = snapshot[i] - predict(i);
+                        if (residual != 0) {
+                            out.put(maskStart + (i >>> 3), (byte) (out.get(maskStart + (i >>> 3)) | 1 << (i & 7)));
+                            putVarint(out, zigzag(residual));
+                        }
+                    }
+                }
+            } catch (BufferOverflowException e) {
+                out.position(start);
+                return false;
+            }
+
+            // Move the payload up against its length prefix
+            int payloadLength = out.position() - payloadStart;
+            if (payloadLength >= 1 << 21) throw new IllegalStateException("Snapshot too large: " + length);
+            int prefix = varintSize(payloadLength);
+            out.position(start);
+            putVarint(out, payloadLength);
+            for (int k = 0; prefix < 3 && k < payloadLength; k++) {
+                out.put(start + prefix + k, out.get(payloadStart + k));
+            }
+            out.position(start + prefix + payloadLength);
+
+            push(snapshot, length);
+            return true;
+        }
+    }
+
+    /**
+     * Decodes one connection's messages. Not thread-safe.
+     */
+    public static final class Decoder extends History {
+        private int[] current = new int[64];
+        private boolean lastWasKeyframe;
+
+        /**
+         * Decodes the next whole message in {@code in}, if there is one.
+         *
+         * @return the snapshot (valid until the next call), or null if
+         *         {@code in} holds only part of a message, in which case its
+         *         position is unchanged
+         * @throws IllegalStateException if the stream is corrupt
+         */
+        public int[] decode(ByteBuffer in) {
+            int start = in.position();
+            int payloadLength;
+            try {
+                payloadLength = getVarint(in);
+            } catch (BufferUnderflowException e) {
+                in.position(start);
+                return null;
+            }
+            if (in.remaining() < payloadLength) {
+                in.position(start);
+                return null;
+            }
+            int end = in.position() + payloadLength;
+
+            byte type = in.get();
+            lastWasKeyframe = type == KEYFRAME;
+            if (type == KEYFRAME) {
+                int length = getVarint(in);
+                ensure(length);
+                for (int i = 0; i < length; i++) {
+                    current[i] = unzigzag(getVarint(in));
+                }
+                push(current, length);
+            } else if (type == DELTA) {
+                if (lastLength < 0) throw new IllegalStateException("Delta before the first keyframe");
+                int length = lastLength;
+                ensure(length);
+                int maskStart = in.position();
+                in.position(maskStart + ((length + 7) >>> 3));
+                for (int i = 0; i < length; i++) {
+                    int predicted = predict(i);
+                    boolean changed = (in.get(maskStart + (i >>> 3)) & 1 << (i & 7)) != 0;
+                    current[i] = changed ? predicted + unzigzag(getVarint(in)) : predicted;
+                }
+                push(current, length);
+            } else {
+                throw new IllegalStateException("Unknown message type " + type);
+            }
+            if (in.position() != end) throw new IllegalStateException("Message length mismatch");
+            return current;
+        }
+
+        /**
+         * Whether the last message decoded was a keyframe.
+         */
+        public boolean lastWasKeyframe() {
+            return lastWasKeyframe;
+        }
+
+        private void ensure(int length) {
+            if (current.length < length) {
+                current = new int[Math.max(length, current.length * 2)];
+            }
+        }
+    }
+
+    static void putVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static int getVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalStateException("Varint too long");
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static int zigzag(int value) {
+        return value << 1 ^ value >> 31;
+    }
+
+    private static int unzigzag(int value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+}
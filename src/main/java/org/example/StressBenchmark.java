@@ -0,0 +1,273 @@
+package org.example;
+
+import com.jogamp.opengl.GL2;
+import com.jogamp.opengl.GLAutoDrawable;
+import com.jogamp.opengl.GLCapabilities;
+import com.jogamp.opengl.GLEventListener;
+import com.jogamp.opengl.GLProfile;
+import com.jogamp.opengl.awt.GLCanvas;
+import com.jogamp.opengl.util.Animator;
+
+import java.awt.Frame;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+/**
+ * Scalability benchmark: fills the world with N rings, M color changers and K
+ * stars, sweeps N across orders of magnitude and prints the update, collision
+ * and render time per frame for each size.
+ *
+ * Run with {@code --stress [--headless] [--max-rings N] [--changers M] [--stars K] [--gpu-stars] [--frames F]}.
+ * Without --changers and --stars, M = N and K = 10 * N. Headless runs skip rendering.
+ * With --gpu-stars the stars are a {@link GpuStarfield}, which has no CPU
+ * update and draws in one call, instead of {@link BackgroundStars}.
+ */
+public class StressBenchmark implements GLEventListener {
+    private static final int WARMUP_FRAMES = 60;
+
+    private final int[] ringCounts;
+    private final int changers;
+    private final int stars;
+    private boolean gpuStars; // Cleared if shaders turn out to be unavailable
+    private final int frames;
+
+    // Per row results, in nanoseconds summed over the measured frames
+    private final long[] updateNanos;
+    private final long[] collisionNanos;
+    private final long[] renderNanos;
+
+    // On-screen state
+    private final LevelOfDetail lod = new LevelOfDetail(RenderQuality.MEDIUM);
+    private Animator animator;
+    private GameWorld world;
+    private BackgroundStars backgroundStars;
+    private GpuStarfield gpuStarfield;
+    private int row = -1;
+    private int frame;
+
+    private StressBenchmark(int maxRings, int changers, int stars, boolean gpuStars, int frames) {
+        int rows = 1;
+        while (pow10(rows) <= maxRings) rows++;
+        this.ringCounts = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            ringCounts[i] = pow10(i);
+        }
+        this.changers = changers;
+        this.stars = stars;
+        this.gpuStars = gpuStars;
+        this.frames = frames;
+        this.updateNanos = new long[rows];
+        this.collisionNanos = new long[rows];
+        this.renderNanos = new long[rows];
+    }
+
+    public static void run(String[] args) {
+        boolean headless = false;
+        boolean gpuStars = false;
+        int maxRings = 10_000;
+        int changers = -1;
+        int stars = -1;
+        int frames = 300;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--headless")) headless = true;
+            if (args[i].equals("--gpu-stars")) gpuStars = true;
+            if (i + 1 < args.length) {
+                if (args[i].equals("--max-rings")) maxRings = Integer.parseInt(args[i + 1]);
+                if (args[i].equals("--changers")) changers = Integer.parseInt(args[i + 1]);
+                if (args[i].equals("--stars")) stars = Integer.parseInt(args[i + 1]);
+                if (args[i].equals("--frames")) frames = Integer.parseInt(args[i + 1]);
+            }
+        }
+
+        StressBenchmark benchmark = new StressBenchmark(maxRings, changers, stars, gpuStars, frames);
+        if (headless) {
+            benchmark.runHeadless();
+            benchmark.printTable(false);
+        } else {
+            benchmark.runOnScreen();
+        }
+    }
+
+    private void runHeadless() {
+        for (row = 0; row < ringCounts.length; row++) {
+            startRow();
+            for (frame = 0; frame < WARMUP_FRAMES + frames; frame++) {
+                step();
+            }
+        }
+    }
+
+    private void runOnScreen() {
+        GLCanvas canvas = new GLCanvas(new GLCapabilities(GLProfile.getDefault()));
+        Frame window = new Frame("Color Switch Clone - stress");
+        window.setSize(400, 800);
+        window.add(canvas);
+        window.setVisible(true);
+        window.addWindowListener(new WindowAdapter() {
+            public void windowClosing(WindowEvent e) {
+                System.exit(0);
+            }
+        });
+
+        canvas.addGLEventListener(this);
+        // Unthrottled, so render time isn't hidden behind the frame rate cap
+        animator = new Animator(canvas);
+        animator.start();
+    }
+
+    /**
+     * Builds the scene for the current row.
+     */
+    private void startRow() {
+        int rings = ringCounts[row];
+        world = new GameWorld(row);
+        world.populateStress(rings, changersFor(rings));
+        world.setTimeCollisions(true);
+        if (!gpuStars) {
+            backgroundStars = new BackgroundStars(-10, 10, -20, 20, starsFor(rings));
+        }
+        frame = 0;
+    }
+
+    /**
+     * Advances the current scene one frame and records update and collision time.
+     */
+    private void step() {
+        // Keep the ball bouncing near the bottom of the screen
+        PlayerBall ball = world.getPlayerBall();
+        if (ball.getVelocityY() <= 0 && ball.getY() < -8) {
+            world.jump();
+        }
+
+        long start = System.nanoTime();
+        world.update(1f);
+        if (backgroundStars != null) {
+            backgroundStars.update(0);
+        }
+        long elapsed = System.nanoTime() - start;
+        long collision = world.takeCollisionNanos();
+
+        if (frame >= WARMUP_FRAMES) {
+            updateNanos[row] += elapsed - collision;
+            collisionNanos[row] += collision;
+        }
+    }
+
+    @Override
+    public void init(GLAutoDrawable drawable) {
+        GL2 gl = drawable.getGL().getGL2();
+        gl.glClearColor(0.02f, 0.03f, 0.08f, 1.0f);
+        row = 0;
+        startRow();
+    }
+
+    @Override
+    public void display(GLAutoDrawable drawable) {
+        if (row >= ringCounts.length) return;
+
+        GL2 gl = drawable.getGL().getGL2();
+        gl.glClear(GL2.GL_COLOR_BUFFER_BIT);
+        gl.glLoadIdentity();
+
+        step();
+
+        if (gpuStars) {
+            prepareGpuStars(gl);
+        }
+
+        long start = System.nanoTime();
+        if (gpuStarfield != null) {
+            gpuStarfield.draw(gl, frame, world.getCameraOffsetY(), -10, 10, -20, 20, lod);
+        } else {
+            backgroundStars.draw(gl);
+        }
+        world.getPlayerBall().draw(gl, lod);
+        world.getRings().forEach(ring -> ring.draw(gl, lod));
+        world.getObstacles().draw(gl, lod);
+        world.getColorChangers().forEach(changer -> changer.draw(gl, lod));
+        gl.glFinish(); // Include the GPU's share of the work
+        if (frame >= WARMUP_FRAMES) {
+            renderNanos[row] += System.nanoTime() - start;
+        }
+
+        frame++;
+        if (frame == WARMUP_FRAMES + frames) {
+            row++;
+            if (row < ringCounts.length) {
+                startRow();
+            } else {
+                printTable(true);
+                // The animator can't be stopped from its own thread
+                new Thread(() -> {
+                    animator.stop();
+                    System.exit(0);
+                }).start();
+            }
+        }
+    }
+
+    /**
+     * Uploads a starfield of this row's size, outside the timed part of the
+     * frame. Falls back to CPU stars for good if shaders aren't available.
+     */
+    private void prepareGpuStars(GL2 gl) {
+        int count = starsFor(ringCounts[row]);
+        if (gpuStarfield != null && gpuStarfield.getStarCount() == count) return;
+        if (gpuStarfield != null) {
+            gpuStarfield.dispose(gl);
+        }
+        gpuStarfield = new GpuStarfield(count);
+        if (!gpuStarfield.init(gl)) {
+            System.err.println("Shaders unavailable, measuring CPU stars instead");
+            gpuStarfield = null;
+            gpuStars = false;
+            backgroundStars = new BackgroundStars(-10, 10, -20, 20, count);
+        }
+    }
+
+    @Override
+    public void reshape(GLAutoDrawable drawable, int x, int y, int width, int height) {
+        GL2 gl = drawable.getGL().getGL2();
+        gl.glViewport(0, 0, width, height);
+        gl.glMatrixMode(GL2.GL_PROJECTION);
+        gl.glLoadIdentity();
+        gl.glOrtho(-10, 10, -10 * (float) height / width, 10 * (float) height / width, -1, 1);
+        gl.glMatrixMode(GL2.GL_MODELVIEW);
+        gl.glLoadIdentity();
+        lod.updateViewport(width, height);
+    }
+
+    @Override
+    public void dispose(GLAutoDrawable drawable) {
+    }
+
+    private void printTable(boolean rendered) {
+        System.out.printf("Stress benchmark (%s, %s stars, %d frames per row, times in ms per frame)%n",
+                rendered ? "on screen" : "headless", gpuStars ? "GPU" : "CPU", frames);
+        System.out.printf("%9s %9s %9s %10s %10s %10s %10s%n",
+                "rings", "changers", "stars", "update", "collision", "render", "total");
+        for (int i = 0; i < ringCounts.length; i++) {
+            int rings = ringCounts[i];
+            double update = updateNanos[i] / 1e6 / frames;
+            double collision = collisionNanos[i] / 1e6 / frames;
+            double render = renderNanos[i] / 1e6 / frames;
+            System.out.printf("%9d %9d %9d %10.4f %10.4f %10s %10.4f%n",
+                    rings, changersFor(rings), starsFor(rings), update, collision,
+                    rendered ? String.format("%.4f", render) : "-", update + collision + render);
+        }
+    }
+
+    private int changersFor(int rings) {
+        return changers >= 0 ? changers : rings;
+    }
+
+    private int starsFor(int rings) {
+        return stars >= 0 ? stars : rings * 10;
+    }
+
+    private static int pow10(int exponent) {
+        int value = 1;
+        for (int i = 0; i < exponent; i++) value *= 10;
+        return value;
+    }
+}
@@ -0,0 +1,243 @@
+package org.example;
+
+/**
+ * Continuous collision tests for the ball's path across one tick.
+ *
+ * The ball only ever moves vertically (x is fixed at 0, as are ring and color
+ * changer centers), so its offset from an obstacle over a tick is the quadratic
+ * p(t) = a + b*t + c*t^2 for t in [0, dt]. Instead of testing overlap at the end
+ * of the tick, these methods find every moment within the tick at which the ball
+ * touches an obstacle, so nothing is skipped at low tick rates.
+ *
+ * Instances hold scratch buffers and are not thread-safe; use one per world.
+ */
+public class SweptCollision {
+    /** Result of {@link #sweepRing}: the ball never touched the ring band. */
+    public static final int MISS = 0;
+    /** Result flag of {@link #sweepRing}: the ball entered the band on a segment of its own color. */
+    public static final int PASS = 1;
+    /** Result flag of {@link #sweepRing}: the ball touched a segment of another color. */
+    public static final int HIT = 2;
+
+    private static final int SEGMENT_COUNT = Palette.COUNT;
+    private static final float SEGMENT_ANGLE = 360f / SEGMENT_COUNT;
+
+    // Up to 8 boundary crossings plus both ends of the tick
+    private final float[] times = new float[10];
+    private float contactTime;
+    private float hitTime;
+    private float hitDuration;
+
+    /**
+     * Sweeps the ball across a ring during one tick.
+     *
+     * The ring's angle at time t is {@code startAngle + rotationSpeed * t}. If the
+     * ball changes color at {@code changeTime} (for example by touching a color
+     * changer earlier in the same tick), {@code colorAfter} is used from then on.
+     *
+     * @param a ball offset from the ring center at the start of the tick
+     * @param b linear coefficient of the offset
+     * @param c quadratic coefficient of the offset
+     * @param dt tick length in frames
+     * @param lo inner contact distance (inner radius minus ball radius)
+     * @param hi outer contact distance (outer radius plus ball radius)
+     * @return {@link #MISS}, or {@link #PASS} and/or {@link #HIT} flags; see
+     *         {@link #getContactTime()} and {@link #getHitDuration()}
+     */
+    public int sweepRing(float a, float b, float c, float dt, float lo, float hi,
+                         double startAngle, float rotationSpeed,
+                         int colorBefore, float changeTime, int colorAfter) {
+        int count = 0;
+        times[count++] = 0f;
+        count = addRoots(a - hi, b, c, dt, count);
+        count = addRoots(a - lo, b, c, dt, count);
+        count = addRoots(a + lo, b, c, dt, count);
+        count = addRoots(a + hi, b, c, dt, count);
+        times[count++] = dt;
+        sort(count);
+
+        int result = MISS;
+        for (int i = 0; i + 1 < count; i++) {
+            float t0 = times[i];
+            float t1 = times[i + 1];
+            float mid = (t0 + t1) * 0.5f;
+            float p = a + (b + c * mid) * mid;
+            float dist = Math.abs(p);
+            if (!(dist > lo && dist < hi)) continue;
+
+            // The ball sits straight above (90) or below (270) the ring center
+            float ballAngle = p > 0 ? 90f : 270f;
+            if (result == MISS) {
+                int color = t0 >= changeTime ? colorAfter : colorBefore;
+                if (!touchesOtherColor(ballAngle, startAngle, rotationSpeed, t0, t0, color)) {
+                    result = PASS;
+                }
+                contactTime = t0;
+            }
+            // Still touching the band when the tick ends: the contact may go on into the next one
+            boolean open = t1 >= dt;
+            if (changeTime > t0 && changeTime < t1) {
+                if (touchesOtherColor(ballAngle, startAngle, rotationSpeed, t0, changeTime, colorBefore)) {
+                    exposure(ballAngle, startAngle, rotationSpeed, t0, changeTime, colorBefore, true);
+                    return result | HIT;
+                }
+                if (touchesOtherColor(ballAngle, startAngle, rotationSpeed, changeTime, t1, colorAfter)) {
+                    exposure(ballAngle, startAngle, rotationSpeed, changeTime, t1, colorAfter, open);
+                    return result | HIT;
+                }
+            } else {
+                int color = t0 >= changeTime ? colorAfter : colorBefore;
+                if (touchesOtherColor(ballAngle, startAngle, rotationSpeed, t0, t1, color)) {
+                    exposure(ballAngle, startAngle, rotationSpeed, t0, t1, color, open);
+                    return result | HIT;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the first moment in the tick at which the ball is within
+     * {@code reach} of a point obstacle.
+     *
+     * @param a ball offset from the obstacle at the start of the tick
+     * @param b linear coefficient of the offset
+     * @param c quadratic coefficient of the offset
+     * @param dt tick length in frames
+     * @param reach contact distance along the path
+     * @return the contact time, or -1 if there is none
+     */
+    public float sweepPoint(float a, float b, float c, float dt, float reach) {
+        if (Math.abs(a) < reach) return 0f;
+        int count = addRoots(a - reach, b, c, dt, 0);
+        count = addRoots(a + reach, b, c, dt, count);
+        if (count == 0) return -1f;
+        sort(count);
+        return times[0];
+    }
+
+    /**
+     * Time of the first contact reported by the last {@link #sweepRing} call.
+     */
+    public float getContactTime() {
+        return contactTime;
+    }
+
+    /**
+     * How long the first contact with another color reported by the last
+     * {@link #sweepRing} call lasted, in frames, or Float.MAX_VALUE if it was
+     * still going on at the end of the tick. A contact this short can fall
+     * between the samples of a discrete test that many frames apart.
+     */
+    public float getHitDuration() {
+        return hitDuration;
+    }
+
+    /**
+     * When the first contact with another color reported by the last
+     * {@link #sweepRing} call began; later than {@link #getContactTime()} if
+     * the ball entered the band on its own color.
+     */
+    public float getHitTime() {
+        return hitTime;
+    }
+
+    /**
+     * Finds the first stretch of time in [t0, t1] during which a segment other
+     * than {@code color} is under the ball, setting {@link #hitTime} and
+     * {@link #hitDuration} (Float.MAX_VALUE if it reaches t1 and {@code open}
+     * says the contact carries on past it).
+     */
+    private void exposure(float ballAngle, double startAngle, float rotationSpeed,
+                                  float t0, float t1, int color, boolean open) {
+        double u0 = ballAngle - (startAngle + (double) rotationSpeed * t0);
+        double u1 = ballAngle - (startAngle + (double) rotationSpeed * t1);
+        // Segment boundaries passing under the ball strictly inside the interval
+        int firstBoundary = (int) Math.floor(Math.min(u0, u1) / SEGMENT_ANGLE) + 1;
+        int lastBoundary = (int) Math.ceil(Math.max(u0, u1) / SEGMENT_ANGLE) - 1;
+        int boundaries = Math.max(0, lastBoundary - firstBoundary + 1);
+
+        float stretchStart = Float.NaN;
+        float from = t0;
+        for (int j = 0; j <= boundaries; j++) {
+            float to = t1;
+            if (j < boundaries) {
+                // The angle under the ball falls while the ring turns counterclockwise
+                int k = rotationSpeed > 0 ? lastBoundary - j : firstBoundary + j;
+                to = (float) ((ballAngle - startAngle - k * (double) SEGMENT_ANGLE) / rotationSpeed);
+            }
+            double mid = ballAngle - (startAngle + (double) rotationSpeed * ((from + to) * 0.5f));
+            mid %= 360;
+            if (mid < 0) mid += 360;
+            boolean other = Math.min(SEGMENT_COUNT - 1, (int) (mid / SEGMENT_ANGLE)) != color;
+            if (other && Float.isNaN(stretchStart)) {
+                stretchStart = from;
+            } else if (!other && !Float.isNaN(stretchStart)) {
+                hitTime = stretchStart;
+                hitDuration = from - stretchStart;
+                return;
+            }
+            from = to;
+        }
+        hitTime = Float.isNaN(stretchStart) ? t0 : stretchStart;
+        hitDuration = Float.isNaN(stretchStart) ? 0f : open ? Float.MAX_VALUE : t1 - stretchStart;
+    }
+
+    /**
+     * Checks whether any segment other than {@code color} passes under the ball
+     * while the ring rotates from time t0 to t1. Angles are in double, as the
+     * ring keeps them, so this agrees with {@link Ring#getSegmentAtAngle} at
+     * the same instant.
+     */
+    private static boolean touchesOtherColor(float ballAngle, double startAngle, float rotationSpeed,
+                                             float t0, float t1, int color) {
+        double u0 = ballAngle - (startAngle + (double) rotationSpeed * t0);
+        double u1 = ballAngle - (startAngle + (double) rotationSpeed * t1);
+        double from = Math.min(u0, u1);
+        double span = Math.abs(u1 - u0);
+        if (span >= 360f - SEGMENT_ANGLE) return true; // every segment passes under the ball
+
+        from %= 360;
+        if (from < 0) from += 360;
+        int first = (int) (from / SEGMENT_ANGLE);
+        int last = (int) ((from + span) / SEGMENT_ANGLE);
+        for (int s = first; s <= last; s++) {
+            if (s % SEGMENT_COUNT != color) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Appends the roots of k + b*t + c*t^2 that lie strictly inside (0, dt).
+     */
+    private int addRoots(float k, float b, float c, float dt, int count) {
+        if (Math.abs(c) < 1e-9f) {
+            if (b != 0) count = addIfInside(-k / b, dt, count);
+            return count;
+        }
+        float disc = b * b - 4 * c * k;
+        if (disc < 0) return count;
+        // Numerically stable form of the quadratic formula
+        float q = -0.5f * (b + Math.copySign((float) Math.sqrt(disc), b));
+        count = addIfInside(q / c, dt, count);
+        if (q != 0) count = addIfInside(k / q, dt, count);
+        return count;
+    }
+
+    private int addIfInside(float t, float dt, int count) {
+        if (t > 0 && t < dt) times[count++] = t;
+        return count;
+    }
+
+    private void sort(int count) {
+        for (int i = 1; i < count; i++) {
+            float v = times[i];
+            int j = i - 1;
+            while (j >= 0 && times[j] > v) {
+                times[j + 1] = times[j];
+                j--;
+            }
+            times[j + 1] = v;
+        }
+    }
+}
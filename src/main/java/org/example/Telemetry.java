@@ -0,0 +1,173 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Binary telemetry log written into a ring of memory-mapped files.
+ *
+ * Every event is a fixed 32-byte record written straight into the mapped file,
+ * so recording allocates nothing and never blocks on I/O; the OS flushes the
+ * pages, and they survive even if the process exits abruptly. When a file is
+ * full the next file in the ring is reused, so disk usage stays bounded.
+ *
+ * File layout (big-endian):
+ * <pre>
+ * header (64 bytes): int magic, int version, int recordSize, int reserved,
+ *                    long processId, long openedEpochMillis, long fileSequence,
+ *                    long recordCount
+ * record (32 bytes): byte type, byte/short reserved, int tick, long nanos,
+ *                    int session, int score, float a, float b
+ * </pre>
+ * Meaning of a and b per type is listed on the type constants.
+ *
+ * Not thread-safe: record from the render thread only.
+ */
+public class Telemetry {
+    /** Jump. a = ball y, b = ball velocity before the jump. */
+    public static final byte JUMP = 1;
+    /** Ring or other obstacle passed. a = ring outer radius (obstacle half height), b = rotation speed. */
+    public static final byte RING_PASSED = 2;
+    /** Ball picked up a color changer. a = new color, b = previous color. */
+    public static final byte COLOR_CHANGE = 3;
+    /** Game over. a = ball y, b = {@link #DEATH_RING} or {@link #DEATH_FELL}. */
+    public static final byte DEATH = 4;
+    /** Frame time sample. a = update + render time in ms, b = time since previous frame in ms. */
+    public static final byte FRAME_TIME = 5;
+    public static final byte TYPE_COUNT = 6;
+
+    public static final float DEATH_RING = 0;
+    public static final float DEATH_FELL = 1;
+
+    static final int MAGIC = 0x4350544C; // "CPTL"
+    static final int VERSION = 1;
+    static final ByteOrder BYTE_ORDER = ByteOrder.BIG_ENDIAN;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 32;
+    static final int PROCESS_ID_OFFSET = 16;
+    static final int SEQUENCE_OFFSET = 32;
+    static final int COUNT_OFFSET = 40;
+
+    private static final int DEFAULT_FILE_COUNT = 8;
+    private static final int DEFAULT_FILE_SIZE = 16 << 20;
+
+    private final Path directory;
+    private final int fileCount;
+    private final int recordsPerFile;
+    private final long processId = new Random().nextLong();
+    private final long startNanos = System.nanoTime();
+
+    private MappedByteBuffer buffer;
+    private long fileSequence;
+    private int recordCount;
+
+    public Telemetry(Path directory) throws IOException {
+        this(directory, DEFAULT_FILE_COUNT, DEFAULT_FILE_SIZE);
+    }
+
+    /**
+     * @param directory where the ring of files lives (created if missing)
+     * @param fileCount number of files in the ring
+     * @param fileSize size of each file in bytes, header included
+     */
+    public Telemetry(Path directory, int fileCount, int fileSize) throws IOException {
+        this.directory = directory;
+        this.fileCount = fileCount;
+        this.recordsPerFile = (fileSize - HEADER_SIZE) / RECORD_SIZE;
+        Files.createDirectories(directory);
+
+        // Continue after the newest file already in the ring instead of overwriting it
+        fileSequence = latestSequence() + 1;
+        open();
+    }
+
+    /**
+     * Appends one event. Does nothing if the log could not be written.
+     */
+    public void record(byte type, int session, int tick, int score, float a, float b) {
+        if (buffer == null) return;
+        if (recordCount == recordsPerFile) {
+            fileSequence++;
+            try {
+                open();
+            } catch (IOException e) {
+                System.err.println("Telemetry disabled: " + e.getMessage());
+                buffer = null;
+                return;
+            }
+        }
+
+        int at = HEADER_SIZE + recordCount * RECORD_SIZE;
+        buffer.put(at, type);
+        buffer.putInt(at + 4, tick);
+        buffer.putLong(at + 8, System.nanoTime() - startNanos);
+        buffer.putInt(at + 16, session);
+        buffer.putInt(at + 20, score);
+        buffer.putFloat(at + 24, a);
+        buffer.putFloat(at + 28, b);
+        recordCount++;
+        // Publish the record only once it is complete
+        buffer.putLong(COUNT_OFFSET, recordCount);
+    }
+
+    /**
+     * Flushes mapped pages to disk.
+     */
+    public void close() {
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+    }
+
+    static Path fileFor(Path directory, int index) {
+        return directory.resolve(String.format("telemetry-%02d.bin", index));
+    }
+
+    private void open() throws IOException {
+        if (buffer != null) {
+            buffer.force();
+        }
+        Path file = fileFor(directory, (int) (fileSequence % fileCount));
+        long size = HEADER_SIZE + (long) recordsPerFile * RECORD_SIZE;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        buffer.order(BYTE_ORDER);
+        recordCount = 0;
+
+        buffer.putLong(COUNT_OFFSET, 0);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, RECORD_SIZE);
+        buffer.putInt(12, 0);
+        buffer.putLong(PROCESS_ID_OFFSET, processId);
+        buffer.putLong(24, System.currentTimeMillis());
+        buffer.putLong(SEQUENCE_OFFSET, fileSequence);
+    }
+
+    private long latestSequence() throws IOException {
+        long latest = -1;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(BYTE_ORDER);
+        for (int i = 0; i < fileCount; i++) {
+            Path file = fileFor(directory, i);
+            if (!Files.exists(file)) continue;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                header.clear();
+                if (channel.read(header, 0) == HEADER_SIZE && header.getInt(0) == MAGIC) {
+                    latest = Math.max(latest, header.getLong(SEQUENCE_OFFSET));
+                }
+            }
+        }
+        return latest;
+    }
+}
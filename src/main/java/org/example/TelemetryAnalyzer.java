@@ -0,0 +1,181 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Offline analyzer for {@link Telemetry} logs.
+ *
+ * Streams every record through one reusable buffer and aggregates into
+ * fixed-size histograms, so memory use doesn't grow with log size.
+ *
+ * Run with {@code --analyze <file or directory>...}.
+ */
+public class TelemetryAnalyzer {
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+    private static final int MAX_SCORE_BUCKET = 1000;
+    private static final float FRAME_BUCKET_MS = 0.05f;
+    private static final int FRAME_BUCKETS = 4000; // Up to 200 ms
+    private static final float FRAME_BUDGET_MS = 1000f / 60;
+
+    private final long[] typeCounts = new long[Telemetry.TYPE_COUNT];
+    private final long[] scoreHistogram = new long[MAX_SCORE_BUCKET + 1];
+    private final long[] frameHistogram = new long[FRAME_BUCKETS + 1];
+    private long scoreTotal;
+    private int maxScore;
+    private long ringDeaths;
+    private long fallDeaths;
+    private long framesOverBudget;
+    private float maxFrameMs;
+    private long records;
+    private long bytes;
+    private int files;
+
+    public static void run(String[] paths) throws IOException {
+        List<Path> logFiles = new ArrayList<>();
+        for (String path : paths) {
+            collect(Paths.get(path), logFiles);
+        }
+
+        TelemetryAnalyzer analyzer = new TelemetryAnalyzer();
+        long start = System.nanoTime();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE).order(Telemetry.BYTE_ORDER);
+        for (Path file : logFiles) {
+            analyzer.read(file, buffer);
+        }
+        analyzer.print((System.nanoTime() - start) / 1e9);
+    }
+
+    private static void collect(Path path, List<Path> out) throws IOException {
+        if (!Files.isDirectory(path)) {
+            out.add(path);
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(path, "*.bin")) {
+            for (Path file : stream) {
+                out.add(file);
+            }
+        }
+    }
+
+    private void read(Path file, ByteBuffer buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer.clear();
+            buffer.limit(Telemetry.HEADER_SIZE);
+            if (channel.read(buffer, 0) != Telemetry.HEADER_SIZE
+                    || buffer.getInt(0) != Telemetry.MAGIC
+                    || buffer.getInt(8) != Telemetry.RECORD_SIZE) {
+                System.err.println("Skipping " + file + ": not a telemetry log");
+                return;
+            }
+            long remaining = buffer.getLong(Telemetry.COUNT_OFFSET) * Telemetry.RECORD_SIZE;
+            long position = Telemetry.HEADER_SIZE;
+            files++;
+
+            while (remaining > 0) {
+                buffer.clear();
+                if (remaining < buffer.capacity()) {
+                    buffer.limit((int) remaining);
+                }
+                int read = channel.read(buffer, position);
+                if (read <= 0) break; // Truncated file
+                int whole = read - read % Telemetry.RECORD_SIZE;
+                for (int at = 0; at < whole; at += Telemetry.RECORD_SIZE) {
+                    accept(buffer, at);
+                }
+                position += whole;
+                remaining -= whole;
+                bytes += whole;
+            }
+        }
+    }
+
+    private void accept(ByteBuffer buffer, int at) {
+        byte type = buffer.get(at);
+        if (type <= 0 || type >= Telemetry.TYPE_COUNT) return;
+        records++;
+        typeCounts[type]++;
+
+        switch (type) {
+            case Telemetry.DEATH: {
+                int score = buffer.getInt(at + 20);
+                scoreTotal += score;
+                maxScore = Math.max(maxScore, score);
+                scoreHistogram[Math.min(score, MAX_SCORE_BUCKET)]++;
+                if (buffer.getFloat(at + 28) == Telemetry.DEATH_FELL) {
+                    fallDeaths++;
+                } else {
+                    ringDeaths++;
+                }
+                break;
+            }
+            case Telemetry.FRAME_TIME: {
+                float frameMs = buffer.getFloat(at + 24);
+                frameHistogram[Math.min((int) (frameMs / FRAME_BUCKET_MS), FRAME_BUCKETS)]++;
+                maxFrameMs = Math.max(maxFrameMs, frameMs);
+                if (frameMs > FRAME_BUDGET_MS) framesOverBudget++;
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    private void print(double seconds) {
+        System.out.printf("Read %d records (%.1f MB) from %d files in %.2f s (%.0f MB/s)%n",
+                records, bytes / 1e6, files, seconds, bytes / 1e6 / Math.max(seconds, 1e-9));
+
+        long games = typeCounts[Telemetry.DEATH];
+        System.out.println();
+        System.out.printf("Games:          %d%n", games);
+        System.out.printf("Jumps:          %d (%.1f per game)%n", typeCounts[Telemetry.JUMP], perGame(Telemetry.JUMP));
+        System.out.printf("Rings passed:   %d (%.1f per game)%n", typeCounts[Telemetry.RING_PASSED], perGame(Telemetry.RING_PASSED));
+        System.out.printf("Color changes:  %d (%.1f per game)%n", typeCounts[Telemetry.COLOR_CHANGE], perGame(Telemetry.COLOR_CHANGE));
+        if (games > 0) {
+            System.out.printf("Score:          mean %.2f, median %d, p90 %d, max %d%n",
+                    (double) scoreTotal / games, percentile(scoreHistogram, games, 0.5),
+                    percentile(scoreHistogram, games, 0.9), maxScore);
+            System.out.printf("Deaths:         %.1f%% on a ring, %.1f%% fell%n",
+                    100.0 * ringDeaths / games, 100.0 * fallDeaths / games);
+        }
+
+        long frames = typeCounts[Telemetry.FRAME_TIME];
+        if (frames > 0) {
+            System.out.println();
+            System.out.printf("Frames:         %d%n", frames);
+            System.out.printf("Frame time ms:  p50 %.2f, p90 %.2f, p99 %.2f, p99.9 %.2f, max %.2f%n",
+                    frameMs(percentile(frameHistogram, frames, 0.5)), frameMs(percentile(frameHistogram, frames, 0.9)),
+                    frameMs(percentile(frameHistogram, frames, 0.99)), frameMs(percentile(frameHistogram, frames, 0.999)),
+                    maxFrameMs);
+            System.out.printf("Over budget:    %d frames (%.3f%%) above %.1f ms%n",
+                    framesOverBudget, 100.0 * framesOverBudget / frames, FRAME_BUDGET_MS);
+        }
+    }
+
+    private double perGame(byte type) {
+        long games = typeCounts[Telemetry.DEATH];
+        return games == 0 ? 0 : (double) typeCounts[type] / games;
+    }
+
+    private static float frameMs(int bucket) {
+        return (bucket + 1) * FRAME_BUCKET_MS; // Upper edge of the bucket
+    }
+
+    private static int percentile(long[] histogram, long total, double fraction) {
+        long target = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= target) return i;
+        }
+        return histogram.length - 1;
+    }
+}